@@ -26,6 +26,7 @@ public class SimpleFreecellController implements FreecellController<Card> {
   private final Appendable ap;
   private FreecellView view;
   private boolean activeGame;
+  private final boolean autoPlay;
 
   /**
    * To represent a controller for a game of freecell.
@@ -35,6 +36,20 @@ public class SimpleFreecellController implements FreecellController<Card> {
    * @param ap    is the output location for the game.
    */
   public SimpleFreecellController(FreecellModel<Card> model, Readable rd, Appendable ap) {
+    this(model, rd, ap, false);
+  }
+
+  /**
+   * To represent a controller for a game of freecell that can play safe cards to the foundation
+   * piles after every move (see {@link FreecellModel#autoPlay()}).
+   *
+   * @param model    is the model of the freecell game.
+   * @param rd       is the reader for user inputs.
+   * @param ap       is the output location for the game.
+   * @param autoPlay is true if safe cards are played after every move.
+   */
+  public SimpleFreecellController(FreecellModel<Card> model, Readable rd, Appendable ap,
+                                  boolean autoPlay) {
     if (model == null || rd == null || ap == null) {
       throw new IllegalArgumentException("Arguments cannot be null !");
     }
@@ -42,6 +57,7 @@ public class SimpleFreecellController implements FreecellController<Card> {
     this.rd = rd;
     this.ap = ap;
     this.activeGame = false;
+    this.autoPlay = autoPlay;
   }
 
   @Override
@@ -92,11 +108,13 @@ public class SimpleFreecellController implements FreecellController<Card> {
       cardIndex -= 1;
 
       // Try making a move.
-      try {
-        model.move(source, sourcePileIdx, cardIndex, destination, destPileIdx);
-      } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      if (!model.tryMove(source, sourcePileIdx, cardIndex, destination, destPileIdx)
+              .isSuccess()) {
         renderMsgTryCatch("Invalid move !\n");
       }
+      else if (autoPlay) {
+        model.autoPlay();
+      }
     }
   }
 
@@ -0,0 +1,471 @@
+package cs3500.freecell.model;
+
+/**
+ * To represent the piles of a game of freecell stored in primitive arrays. Cards are stored as
+ * their indices (see {@link Card#getIndex()}). Each cascade pile is a fixed-capacity array with
+ * a count of the cards in it, each open pile is a slot that holds a card index or {@link #EMPTY},
+ * and each foundation pile only keeps its suit and how many cards it holds, since the cards of a
+ * foundation pile are always the ranks 1 to n of one suit. The storage does not check the rules
+ * of the game, that is the job of the model using it.
+ *
+ * <p>The storage also keeps a Zobrist hash of its contents: every (card, location) pair has a
+ * pseudo-random 64-bit key, and the hash is the exclusive or of the keys of every card where it
+ * currently is. Adding or removing a card updates the hash with a single exclusive or.
+ *
+ * <p>Every cascade pile also keeps, for each of its cards, the length of the build (cards of
+ * alternating colors in descending rank) that ends at that card. Adding a card only looks at the
+ * card below it, so the length of the build at the end of a pile is always known without walking
+ * the pile.
+ *
+ * <p>A storage can be forked into an independent copy that shares the arrays of its cascade
+ * piles with the original. A shared cascade array is only copied the first time a card is added
+ * to that pile, so a fork costs as much as the piles that actually change.
+ */
+public final class ArrayPileStorage {
+
+  /**
+   * Value used for an empty open pile, the top of an empty pile or the suit of an empty
+   * foundation pile.
+   */
+  public static final int EMPTY = -1;
+
+  /**
+   * Number of foundation piles in a game of freecell.
+   */
+  public static final int NUM_FOUNDATIONS = 4;
+
+  private final byte[][] cascades;
+  private final byte[][] runs;
+  private final boolean[] sharedCascades;
+  private final int[] cascadeSizes;
+  private final byte[] openCards;
+  private final int[] foundationSuits;
+  private final int[] foundationSizes;
+  private int emptyCascades;
+  private int emptyOpens;
+  private int cardsInFoundations;
+  private long hash;
+
+  /**
+   * Makes an empty set of piles.
+   *
+   * @param numCascadePiles is the number of cascade piles.
+   * @param numOpenPiles    is the number of open piles.
+   */
+  public ArrayPileStorage(int numCascadePiles, int numOpenPiles) {
+    this.cascades = new byte[numCascadePiles][Card.DECK_SIZE];
+    this.runs = new byte[numCascadePiles][Card.DECK_SIZE];
+    this.sharedCascades = new boolean[numCascadePiles];
+    this.cascadeSizes = new int[numCascadePiles];
+    this.openCards = new byte[numOpenPiles];
+    this.foundationSuits = new int[NUM_FOUNDATIONS];
+    this.foundationSizes = new int[NUM_FOUNDATIONS];
+    this.clear();
+  }
+
+  /**
+   * Makes a copy of the given storage that shares its cascade arrays.
+   *
+   * @param other is the storage being copied.
+   */
+  private ArrayPileStorage(ArrayPileStorage other) {
+    this.cascades = other.cascades.clone();
+    this.runs = other.runs.clone();
+    this.sharedCascades = new boolean[this.cascades.length];
+    this.cascadeSizes = other.cascadeSizes.clone();
+    this.openCards = other.openCards.clone();
+    this.foundationSuits = other.foundationSuits.clone();
+    this.foundationSizes = other.foundationSizes.clone();
+    this.emptyCascades = other.emptyCascades;
+    this.emptyOpens = other.emptyOpens;
+    this.cardsInFoundations = other.cardsInFoundations;
+    this.hash = other.hash;
+    for (int i = 0; i < this.cascades.length; i++) {
+      this.sharedCascades[i] = true;
+      other.sharedCascades[i] = true;
+    }
+  }
+
+  /**
+   * Makes an independent copy of the piles. The copy and this storage share the arrays of the
+   * cascade piles until either of them adds a card to a pile.
+   *
+   * @return the copy of the piles.
+   */
+  public ArrayPileStorage fork() {
+    return new ArrayPileStorage(this);
+  }
+
+  /**
+   * Removes every card from the piles.
+   */
+  public void clear() {
+    for (int i = 0; i < this.cascadeSizes.length; i++) {
+      this.cascadeSizes[i] = 0;
+    }
+    for (int i = 0; i < this.openCards.length; i++) {
+      this.openCards[i] = EMPTY;
+    }
+    for (int i = 0; i < NUM_FOUNDATIONS; i++) {
+      this.foundationSuits[i] = EMPTY;
+      this.foundationSizes[i] = 0;
+    }
+    this.emptyCascades = this.cascadeSizes.length;
+    this.emptyOpens = this.openCards.length;
+    this.cardsInFoundations = 0;
+    this.hash = 0;
+  }
+
+  /**
+   * Empties every pile and deals the given cards into the cascade piles one at a time, going
+   * around the piles in order, so card i ends up in pile i % n at depth i / n. Each pile is filled
+   * in one pass by stepping through the deck n cards at a time.
+   *
+   * @param deck  is the indices of the cards in the order they are dealt.
+   * @param count is the number of cards to deal from the start of the array.
+   */
+  public void deal(byte[] deck, int count) {
+    this.clear();
+    int numCascades = this.cascadeSizes.length;
+    long dealtHash = 0;
+    for (int pile = 0; pile < numCascades && pile < count; pile++) {
+      this.ownCascade(pile);
+      byte[] cascade = this.cascades[pile];
+      byte[] run = this.runs[pile];
+      int depth = 0;
+      for (int i = pile; i < count; i += numCascades) {
+        cascade[depth] = deck[i];
+        run[depth] = runAt(cascade, run, depth);
+        dealtHash ^= cascadeKey(deck[i], pile, depth);
+        depth += 1;
+      }
+      this.cascadeSizes[pile] = depth;
+      this.emptyCascades -= 1;
+    }
+    this.hash = dealtHash;
+  }
+
+  /**
+   * Gets the number of cascade piles.
+   *
+   * @return the number of cascade piles.
+   */
+  public int getNumCascades() {
+    return this.cascadeSizes.length;
+  }
+
+  /**
+   * Gets the number of open piles.
+   *
+   * @return the number of open piles.
+   */
+  public int getNumOpens() {
+    return this.openCards.length;
+  }
+
+  /**
+   * Gets the number of cards in a cascade pile.
+   *
+   * @param pile is the index of the cascade pile.
+   * @return the number of cards in the pile.
+   */
+  public int getNumCardsInCascade(int pile) {
+    return this.cascadeSizes[pile];
+  }
+
+  /**
+   * Gets the index of the card at the given position of a cascade pile.
+   *
+   * @param pile      is the index of the cascade pile.
+   * @param cardIndex is the position of the card in the pile, starting at 0.
+   * @return the index of the card.
+   */
+  public int getCascadeCard(int pile, int cardIndex) {
+    return this.cascades[pile][cardIndex];
+  }
+
+  /**
+   * Gets the index of the last card of a cascade pile.
+   *
+   * @param pile is the index of the cascade pile.
+   * @return the index of the last card, or {@link #EMPTY} if the pile is empty.
+   */
+  public int getCascadeTop(int pile) {
+    int size = this.cascadeSizes[pile];
+    return size == 0 ? EMPTY : this.cascades[pile][size - 1];
+  }
+
+  /**
+   * Adds a card at the end of a cascade pile.
+   *
+   * @param pile is the index of the cascade pile.
+   * @param card is the index of the card being added.
+   */
+  public void addToCascade(int pile, int card) {
+    int size = this.cascadeSizes[pile];
+    if (size == 0) {
+      this.emptyCascades -= 1;
+    }
+    this.ownCascade(pile);
+    this.cascades[pile][size] = (byte) card;
+    this.runs[pile][size] = runAt(this.cascades[pile], this.runs[pile], size);
+    this.cascadeSizes[pile] = size + 1;
+    this.hash ^= cascadeKey(card, pile, size);
+  }
+
+  /**
+   * Removes the last card of a cascade pile.
+   *
+   * @param pile is the index of the cascade pile.
+   * @return the index of the card removed.
+   */
+  public int removeFromCascade(int pile) {
+    int size = this.cascadeSizes[pile] - 1;
+    this.cascadeSizes[pile] = size;
+    if (size == 0) {
+      this.emptyCascades += 1;
+    }
+    int card = this.cascades[pile][size];
+    this.hash ^= cascadeKey(card, pile, size);
+    return card;
+  }
+
+  /**
+   * Moves the cards of a cascade pile starting at the given position, keeping their order, to the
+   * end of another cascade pile.
+   *
+   * @param fromPile  is the index of the cascade pile the cards are taken from.
+   * @param cardIndex is the position of the first card being moved.
+   * @param toPile    is the index of the cascade pile the cards are added to.
+   */
+  public void moveCascadeCards(int fromPile, int cardIndex, int toPile) {
+    int fromSize = this.cascadeSizes[fromPile];
+    int toSize = this.cascadeSizes[toPile];
+    int count = fromSize - cardIndex;
+    for (int i = 0; i < count; i++) {
+      int card = this.cascades[fromPile][cardIndex + i];
+      this.hash ^= cascadeKey(card, fromPile, cardIndex + i)
+              ^ cascadeKey(card, toPile, toSize + i);
+    }
+    this.ownCascade(toPile);
+    System.arraycopy(this.cascades[fromPile], cardIndex, this.cascades[toPile], toSize, count);
+    for (int i = toSize; i < toSize + count; i++) {
+      this.runs[toPile][i] = runAt(this.cascades[toPile], this.runs[toPile], i);
+    }
+    if (toSize == 0 && count > 0) {
+      this.emptyCascades -= 1;
+    }
+    if (cardIndex == 0 && count > 0) {
+      this.emptyCascades += 1;
+    }
+    this.cascadeSizes[toPile] = toSize + count;
+    this.cascadeSizes[fromPile] = cardIndex;
+  }
+
+  /**
+   * Gets the length of the build at the end of a cascade pile: the number of cards, counting
+   * back from the last one, where each card can be stacked on the one before it. The length is
+   * kept up to date as cards are added and removed, so this takes constant time.
+   *
+   * @param pile is the index of the cascade pile.
+   * @return the number of cards in the build, 0 if the pile is empty.
+   */
+  public int getCascadeRunLength(int pile) {
+    int size = this.cascadeSizes[pile];
+    return size == 0 ? 0 : this.runs[pile][size - 1];
+  }
+
+  /**
+   * Gets the length of the build ending at a depth of a cascade pile from the lengths below it.
+   */
+  private static byte runAt(byte[] cascade, byte[] run, int depth) {
+    if (depth > 0 && Card.canStackOn(cascade[depth], cascade[depth - 1])) {
+      return (byte) (run[depth - 1] + 1);
+    }
+    return 1;
+  }
+
+  /**
+   * Makes sure the arrays of a cascade pile are not shared with a fork before writing to them.
+   *
+   * @param pile is the index of the cascade pile.
+   */
+  private void ownCascade(int pile) {
+    if (this.sharedCascades[pile]) {
+      this.cascades[pile] = this.cascades[pile].clone();
+      this.runs[pile] = this.runs[pile].clone();
+      this.sharedCascades[pile] = false;
+    }
+  }
+
+  /**
+   * Gets the card in an open pile.
+   *
+   * @param pile is the index of the open pile.
+   * @return the index of the card, or {@link #EMPTY} if the pile is empty.
+   */
+  public int getOpenCard(int pile) {
+    return this.openCards[pile];
+  }
+
+  /**
+   * Puts a card in an empty open pile.
+   *
+   * @param pile is the index of the open pile.
+   * @param card is the index of the card being added.
+   */
+  public void addToOpen(int pile, int card) {
+    this.openCards[pile] = (byte) card;
+    this.emptyOpens -= 1;
+    this.hash ^= openKey(card, pile);
+  }
+
+  /**
+   * Removes the card in an open pile.
+   *
+   * @param pile is the index of the open pile.
+   * @return the index of the card removed.
+   */
+  public int removeFromOpen(int pile) {
+    int card = this.openCards[pile];
+    this.openCards[pile] = EMPTY;
+    this.emptyOpens += 1;
+    this.hash ^= openKey(card, pile);
+    return card;
+  }
+
+  /**
+   * Gets the number of cards in a foundation pile.
+   *
+   * @param pile is the index of the foundation pile.
+   * @return the number of cards in the pile.
+   */
+  public int getNumCardsInFoundation(int pile) {
+    return this.foundationSizes[pile];
+  }
+
+  /**
+   * Gets the suit index of the cards in a foundation pile.
+   *
+   * @param pile is the index of the foundation pile.
+   * @return the index of the suit (see {@link Suits#getIndex()}), or {@link #EMPTY}.
+   */
+  public int getFoundationSuit(int pile) {
+    return this.foundationSuits[pile];
+  }
+
+  /**
+   * Gets the index of the last card of a foundation pile.
+   *
+   * @param pile is the index of the foundation pile.
+   * @return the index of the last card, or {@link #EMPTY} if the pile is empty.
+   */
+  public int getFoundationTop(int pile) {
+    int size = this.foundationSizes[pile];
+    return size == 0 ? EMPTY : this.foundationSuits[pile] * 13 + size - 1;
+  }
+
+  /**
+   * Adds a card at the end of a foundation pile.
+   *
+   * @param pile is the index of the foundation pile.
+   * @param card is the index of the card being added.
+   */
+  public void addToFoundation(int pile, int card) {
+    this.foundationSuits[pile] = card / 13;
+    this.foundationSizes[pile] += 1;
+    this.cardsInFoundations += 1;
+    this.hash ^= foundationKey(card, pile);
+  }
+
+  /**
+   * Removes the last card of a foundation pile.
+   *
+   * @param pile is the index of the foundation pile.
+   * @return the index of the card removed.
+   */
+  public int removeFromFoundation(int pile) {
+    int card = this.getFoundationTop(pile);
+    int size = this.foundationSizes[pile] - 1;
+    this.foundationSizes[pile] = size;
+    if (size == 0) {
+      this.foundationSuits[pile] = EMPTY;
+    }
+    this.cardsInFoundations -= 1;
+    this.hash ^= foundationKey(card, pile);
+    return card;
+  }
+
+  /**
+   * Gets the number of cascade piles with no cards.
+   *
+   * @return the number of empty cascade piles.
+   */
+  public int getNumEmptyCascades() {
+    return this.emptyCascades;
+  }
+
+  /**
+   * Gets the number of open piles with no cards.
+   *
+   * @return the number of empty open piles.
+   */
+  public int getNumEmptyOpens() {
+    return this.emptyOpens;
+  }
+
+  /**
+   * Checks if every card of the deck is in the foundation piles.
+   *
+   * @return true if the foundation piles hold all 52 cards.
+   */
+  public boolean isComplete() {
+    return this.cardsInFoundations == Card.DECK_SIZE;
+  }
+
+  /**
+   * Gets the Zobrist hash of the cards in the piles. Two storages with the same cards in the same
+   * places have the same hash.
+   *
+   * @return the 64-bit hash of the piles.
+   */
+  public long getHash() {
+    return this.hash;
+  }
+
+  /**
+   * Gets the key of a card at a given position of a cascade pile.
+   */
+  static long cascadeKey(int card, int pile, int depth) {
+    return zobristKey(card, ((long) pile << 8 | depth) << 2);
+  }
+
+  /**
+   * Gets the key of a card in an open pile.
+   */
+  static long openKey(int card, int pile) {
+    return zobristKey(card, (long) pile << 2 | 1);
+  }
+
+  /**
+   * Gets the key of a card in a foundation pile.
+   */
+  static long foundationKey(int card, int pile) {
+    return zobristKey(card, (long) pile << 2 | 2);
+  }
+
+  /**
+   * Scrambles a (card, location) pair into a pseudo-random key using the SplitMix64 finalizer.
+   * Different pairs always give different keys, and the keys are the same in every run.
+   *
+   * @param card     is the index of the card.
+   * @param location is the encoded location of the card.
+   * @return the key of the card at the location.
+   */
+  private static long zobristKey(int card, long location) {
+    long z = ((location << 6) | card) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -1,15 +1,47 @@
 package cs3500.freecell.model;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
 /**
- * To represent a card that can be used in  the game of freecell.
+ * To represent a card that can be used in  the game of freecell. Cards are immutable, and the 52
+ * valid cards have canonical instances available through {@link #of(Suits, int)}.
  */
-public class Card {
+public final class Card {
+  /**
+   * Number of distinct cards in a standard deck, i.e. the number of card indices.
+   */
+  public static final int DECK_SIZE = 52;
+
+  // CASCADE_ORDER[i] has bit j set if card i can be placed on card j in a cascade pile,
+  // FOUNDATION_ORDER[i] has bit j set if card i can go on top of card j in a foundation pile.
+  private static final long[] CASCADE_ORDER = new long[DECK_SIZE];
+  private static final long[] FOUNDATION_ORDER = new long[DECK_SIZE];
+
+  // canonical instances of the valid cards, ordered by index.
+  private static final Card[] CARDS = new Card[DECK_SIZE];
+
+  static {
+    Suits[] suits = Suits.values();
+    for (int i = 0; i < DECK_SIZE; i++) {
+      CARDS[i] = new Card(suits[i / 13], i % 13 + 1);
+    }
+    for (int i = 0; i < DECK_SIZE; i++) {
+      for (int j = 0; j < DECK_SIZE; j++) {
+        Suits suitI = suits[i / 13];
+        Suits suitJ = suits[j / 13];
+        int rankI = i % 13 + 1;
+        int rankJ = j % 13 + 1;
+        if (suitI.isRed() != suitJ.isRed() && rankI == rankJ - 1) {
+          CASCADE_ORDER[i] |= 1L << j;
+        }
+        if (suitI == suitJ && rankI == rankJ + 1) {
+          FOUNDATION_ORDER[i] |= 1L << j;
+        }
+      }
+    }
+  }
+
   private final Suits suit;
   private final int rank;
+  private final int index;
 
   /**
    * Represents a standard poker card from a deck of 52 cards.
@@ -23,6 +55,40 @@ public class Card {
     }
     this.suit = suit;
     this.rank = rank;
+    this.index = (rank >= 1 && rank <= 13) ? suit.getIndex() * 13 + rank - 1 : -1;
+  }
+
+  /**
+   * Gets the canonical instance of the card with the given suit and rank. Repeated calls with the
+   * same arguments return the same object, so no new cards are allocated.
+   *
+   * @param suit is the suit of the card.
+   * @param rank is the numeric value of the card.
+   * @return the shared instance of the card.
+   * @throws IllegalArgumentException if the suit is null or the rank is invalid.
+   */
+  public static Card of(Suits suit, int rank) {
+    if (suit == null) {
+      throw new IllegalArgumentException("Invalid suit");
+    }
+    if (rank <= 0 || rank >= 14) {
+      throw new IllegalArgumentException("Invalid rank");
+    }
+    return CARDS[suit.getIndex() * 13 + rank - 1];
+  }
+
+  /**
+   * Gets the canonical instance of the card with the given index (see {@link #getIndex()}).
+   *
+   * @param index is the index of the card, between 0 and 51.
+   * @return the shared instance of the card.
+   * @throws IllegalArgumentException if the index is out of range.
+   */
+  public static Card fromIndex(int index) {
+    if (index < 0 || index >= DECK_SIZE) {
+      throw new IllegalArgumentException("Invalid card index");
+    }
+    return CARDS[index];
   }
 
   @Override
@@ -58,7 +124,10 @@ public class Card {
 
   @Override
   public int hashCode() {
-    return this.suit.toString().CASE_INSENSITIVE_ORDER.hashCode() + this.rank;
+    if (this.index >= 0) {
+      return this.index;
+    }
+    return 31 * this.suit.getIndex() + this.rank;
   }
 
   /**
@@ -79,17 +148,10 @@ public class Card {
    * @return true if {@this} card come after pileCard, otherwise false.
    */
   public boolean correctOrder(Card pileCard) {
-    ArrayList<Suits> red_suits = new ArrayList<>(Arrays.asList(Suits.HEART, Suits.DIAMOND));
-    boolean current_card_suit_red = red_suits.contains(this.suit);
-    boolean input_card_suit_red = red_suits.contains(pileCard.suit);
-
-    if ((current_card_suit_red && !input_card_suit_red)
-            || (!current_card_suit_red && input_card_suit_red)) {
-      return this.rank == pileCard.rank - 1;
-    }
-    else {
-      return false;
+    if (this.index >= 0 && pileCard.index >= 0) {
+      return canStackOn(this.index, pileCard.index);
     }
+    return this.suit.isRed() != pileCard.suit.isRed() && this.rank == pileCard.rank - 1;
   }
 
   /**
@@ -99,6 +161,9 @@ public class Card {
    * @return true if {@this} card goes after foundationCard.
    */
   public boolean validFoundationAddition(Card foundationCard) {
+    if (this.index >= 0 && foundationCard.index >= 0) {
+      return canFollowOnFoundation(this.index, foundationCard.index);
+    }
     return (this.suit == foundationCard.suit && (this.rank - 1) == foundationCard.rank);
   }
 
@@ -146,12 +211,40 @@ public class Card {
    * @return true if the cards have the same color suit.
    */
   public boolean sameColor(Card card) {
-    List<Suits> redSuits = new ArrayList<>(Arrays.asList(Suits.HEART, Suits.DIAMOND));
-    if (redSuits.contains(this.suit) && redSuits.contains(card.suit)) {
-      return true;
-    }
-    else {
-      return !redSuits.contains(this.suit) && !redSuits.contains(card.suit);
-    }
+    return this.suit.isRed() == card.suit.isRed();
+  }
+
+  /**
+   * Gets the compact index of the card. Valid cards are numbered from 0 to 51, grouped by suit
+   * (in the order of {@link Suits}) and then by rank.
+   *
+   * @return index of {@this} card, or -1 if the card has an invalid rank.
+   */
+  public int getIndex() {
+    return this.index;
+  }
+
+  /**
+   * Checks if a card can be placed on top of another card in a cascade pile, using the card
+   * indices given by {@link #getIndex()}.
+   *
+   * @param cardIndex     is the index of the card being placed.
+   * @param pileCardIndex is the index of the card at the top of the cascade pile.
+   * @return true if the card goes after the pile card in a cascade pile.
+   */
+  public static boolean canStackOn(int cardIndex, int pileCardIndex) {
+    return (CASCADE_ORDER[cardIndex] & (1L << pileCardIndex)) != 0;
+  }
+
+  /**
+   * Checks if a card can be placed on top of another card in a foundation pile, using the card
+   * indices given by {@link #getIndex()}.
+   *
+   * @param cardIndex       is the index of the card being placed.
+   * @param foundationIndex is the index of the card at the top of the foundation pile.
+   * @return true if the card goes after the foundation card in a foundation pile.
+   */
+  public static boolean canFollowOnFoundation(int cardIndex, int foundationIndex) {
+    return (FOUNDATION_ORDER[cardIndex] & (1L << foundationIndex)) != 0;
   }
 }
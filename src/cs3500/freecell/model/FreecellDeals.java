@@ -0,0 +1,123 @@
+package cs3500.freecell.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * To represent a source of reproducible decks for games of freecell. The same seed or deal number
+ * always gives the same deck, on any machine, so sets of games can be shared and replayed. Every
+ * call uses its own generator, so threads dealing games at the same time never compete for a
+ * shared source of randomness.
+ *
+ * <p>The numbered deals follow the classic Microsoft freecell numbering: dealing deck number n
+ * into 8 cascade piles with {@link FreecellModel#startGame} gives the same layout as game n of
+ * that program.
+ */
+public final class FreecellDeals {
+
+  /**
+   * Suits in the order used by the numbered deals.
+   */
+  private static final Suits[] NUMBERED_SUIT_ORDER = {Suits.CLUBS, Suits.DIAMOND, Suits.HEART,
+    Suits.SPADES};
+
+  private FreecellDeals() {
+  }
+
+  /**
+   * Makes the deck of a classic numbered deal.
+   *
+   * @param dealNumber is the number of the deal, starting at 1.
+   * @return the 52 cards of the deal in the order they are dealt.
+   * @throws IllegalArgumentException if the deal number is not positive.
+   */
+  public static List<Card> numberedDeal(int dealNumber) {
+    if (dealNumber < 1) {
+      throw new IllegalArgumentException("Deal number must be positive.");
+    }
+    // cards are numbered rank by rank, four suits each, and start out in reverse order.
+    int[] cards = new int[Card.DECK_SIZE];
+    for (int i = 0; i < cards.length; i++) {
+      cards[i] = cards.length - 1 - i;
+    }
+    long state = dealNumber;
+    for (int i = 0; i < cards.length; i++) {
+      state = (state * 214013 + 2531011) & 0x7FFFFFFF;
+      int random = (int) (state >>> 16);
+      int j = cards.length - 1 - random % (cards.length - i);
+      int swap = cards[i];
+      cards[i] = cards[j];
+      cards[j] = swap;
+    }
+
+    List<Card> deck = new ArrayList<>(Card.DECK_SIZE);
+    for (int card : cards) {
+      deck.add(Card.of(NUMBERED_SUIT_ORDER[card % 4], card / 4 + 1));
+    }
+    return deck;
+  }
+
+  /**
+   * Makes a shuffled deck from a seed. Decks made from the same seed are always in the same order.
+   *
+   * @param seed is the seed of the shuffle.
+   * @return the 52 cards of the deck in the order they are dealt.
+   */
+  public static List<Card> seededDeal(long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    Card[] cards = new Card[Card.DECK_SIZE];
+    for (int i = 0; i < cards.length; i++) {
+      cards[i] = Card.fromIndex(i);
+    }
+    for (int i = cards.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      Card swap = cards[i];
+      cards[i] = cards[j];
+      cards[j] = swap;
+    }
+
+    List<Card> deck = new ArrayList<>(Card.DECK_SIZE);
+    for (Card card : cards) {
+      deck.add(card);
+    }
+    return deck;
+  }
+
+  /**
+   * Makes a stream of the numbered deals in a range. The deals are made as the stream is read, so
+   * a large range does not need to fit in memory, and the stream splits evenly when run in
+   * parallel.
+   *
+   * @param first is the number of the first deal.
+   * @param last  is the number of the last deal, included in the stream.
+   * @return the decks of the deals, in order of their numbers.
+   * @throws IllegalArgumentException if the first deal number is not positive.
+   */
+  public static Stream<List<Card>> numberedDeals(int first, int last) {
+    if (first < 1) {
+      throw new IllegalArgumentException("Deal number must be positive.");
+    }
+    return IntStream.rangeClosed(first, last).mapToObj(FreecellDeals::numberedDeal);
+  }
+
+  /**
+   * Makes a stream of seeded decks, the i-th of which is {@code seededDeal(seed + i)}. Each deck
+   * only depends on its own seed, so the stream gives the same decks whether it is run in parallel
+   * or not, and every deck is shuffled by its own generator.
+   *
+   * @param seed  is the seed of the first deck.
+   * @param count is the number of decks in the stream.
+   * @return the decks, made as the stream is read.
+   * @throws IllegalArgumentException if the count is negative.
+   */
+  public static Stream<List<Card>> seededDeals(long seed, long count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Count can't be negative.");
+    }
+    return LongStream.range(0, count).mapToObj(i -> seededDeal(seed + i));
+  }
+}
@@ -37,6 +37,40 @@ public interface FreecellModel<K> extends FreecellModelState<K> {
    */
   void startGame(List<K> deck, int numCascadePiles, int numOpenPiles, boolean shuffle);
 
+  /**
+   * End the current game, if any, without releasing the memory used by its piles. The model goes
+   * back to the state it had before the first game was started, so it can be handed to a new
+   * player and started again with {@link #startGame} without allocating new piles when the
+   * number of piles is the same. The last deal is kept for {@link #restartDeal()}.
+   */
+  void reset();
+
+  /**
+   * Start the last dealt game again from its initial layout, discarding every move made since.
+   * The deck was already checked when it was first dealt, so this does not check it again, and a
+   * shuffled deal is restarted with the same order of cards.
+   *
+   * @throws IllegalStateException if no game has been dealt yet
+   */
+  void restartDeal();
+
+  /**
+   * Add a listener that is told about every later change to the board of this game, see
+   * {@link FreecellModelListener}.
+   *
+   * @param listener the listener to add
+   * @throws IllegalArgumentException if the listener is null
+   */
+  void addListener(FreecellModelListener listener);
+
+  /**
+   * Remove a listener added with {@link #addListener}. Nothing happens if the listener was not
+   * added.
+   *
+   * @param listener the listener to remove
+   */
+  void removeListener(FreecellModelListener listener);
+
   /**
    * Move a card from the given source pile to the given destination pile, if
    * the move is valid.
@@ -59,6 +93,83 @@ public interface FreecellModel<K> extends FreecellModelState<K> {
             int destPileNumber);
 
 
+  /**
+   * Try to move a card from the given source pile to the given destination pile. This behaves
+   * like {@link #move}, but reports an illegal move through its result instead of throwing an
+   * exception, so rejecting a move is as cheap as making one.
+   *
+   * @param source         the type of the source pile see @link{PileType}
+   * @param pileNumber     the pile number of the given type, starting at 0
+   * @param cardIndex      the index of the card to be moved from the source
+   *                       pile, starting at 0
+   * @param destination    the type of the destination pile
+   * @param destPileNumber the pile number of the given type, starting at 0
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason why it is not
+   *         possible (including {@link MoveResult#GAME_NOT_STARTED})
+   */
+  MoveResult tryMove(PileType source,
+                     int pileNumber,
+                     int cardIndex,
+                     PileType destination,
+                     int destPileNumber);
+
+  /**
+   * Fill the given buffer with every move that is legal in the current state of the game, i.e.
+   * every move that {@link #move} would accept. The buffer is cleared first and can be reused
+   * between calls, so enumerating moves does not allocate once the buffer is large enough.
+   *
+   * @param moves the buffer to fill with the legal moves
+   * @return the number of legal moves
+   * @throws IllegalArgumentException if the buffer is null
+   * @throws IllegalStateException    if the game has not started
+   */
+  int getLegalMoves(MoveBuffer moves);
+
+  /**
+   * Move every card that is safe to the foundation piles, repeating until no card is left to move.
+   * A card is safe when no card still in play could need it as its parent in a cascade pile, that
+   * is when both cards of the other color with rank one lower are already in the foundation piles.
+   * If the cards of every cascade pile are in order of rank, so that the game can no longer be
+   * lost, every remaining card is moved and the game ends. Each card is moved as its own move, so
+   * it can be undone like any other.
+   *
+   * @return the number of cards moved
+   * @throws IllegalStateException if the game has not started
+   */
+  int autoPlay();
+
+  /**
+   * Make every move in the buffer, in order, as a single change: either every move is made, or
+   * none is. Each move is checked in the position the moves before it lead to, and when one of
+   * them is not legal the moves already made are taken back, so the game, including the moves
+   * that can be undone or redone, is left exactly as it was. Listeners are only told about the
+   * moves once the whole batch was made, so they never hear about a batch that failed. No
+   * exception is thrown for an illegal move.
+   *
+   * @param moves the moves to make, in order
+   * @return -1 if every move was made, otherwise the index in the buffer of the first move that
+   *         was not legal
+   * @throws IllegalArgumentException if the buffer is null
+   * @throws IllegalStateException    if the game has not started
+   */
+  int applyMoves(MoveBuffer moves);
+
+  /**
+   * Take back the last move that was made and not undone yet. The move is reversed exactly as it
+   * was made, without checking the rules of the game again.
+   *
+   * @throws IllegalStateException if the game has not started or there is no move to undo
+   */
+  void undo();
+
+  /**
+   * Make again the last move that was undone. Making a new move after undoing discards the moves
+   * that could be redone.
+   *
+   * @throws IllegalStateException if the game has not started or there is no move to redo
+   */
+  void redo();
+
   /**
    * Signal if the game is over or not.
    *
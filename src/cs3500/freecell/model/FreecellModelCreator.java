@@ -1,5 +1,6 @@
 package cs3500.freecell.model;
 
+import cs3500.freecell.model.concurrent.ConcurrentFreecellModel;
 import cs3500.freecell.model.multimove.MultiMoveSimpleFreecellModel;
 
 /**
@@ -32,4 +33,23 @@ public class FreecellModelCreator {
       return new MultiMoveSimpleFreecellModel();
     }
   }
+
+  /**
+   * Makes a game of freecell that can be read by several threads while another thread makes the
+   * moves (see {@link ConcurrentFreecellModel}).
+   *
+   * @param type type of freecell game that the user wants to play (multi or single).
+   * @return thread safe freecell game that works according to the input type.
+   */
+  public static FreecellModel<Card> createConcurrent(GameType type) {
+    if (type == null) {
+      throw new IllegalArgumentException("Type can't be null.");
+    }
+    else if (type == GameType.SINGLEMOVE) {
+      return new ConcurrentFreecellModel(new SimpleFreecellModel());
+    }
+    else {
+      return new ConcurrentFreecellModel(new MultiMoveSimpleFreecellModel());
+    }
+  }
 }
@@ -0,0 +1,39 @@
+package cs3500.freecell.model;
+
+/**
+ * This interface represents an observer of a game of freecell. A listener added to a model is told
+ * about every change to the board as it happens, so it can keep its own copy of the parts it needs
+ * up to date instead of reading the whole board again after every move. Listeners are called on
+ * the thread that changed the game, after the change was made.
+ */
+public interface FreecellModelListener {
+
+  /**
+   * Called when the whole board was replaced, either by dealing a new game, by dealing the last
+   * game again or by restoring a position.
+   *
+   * @param numCascadePiles the number of cascade piles of the new board
+   * @param numOpenPiles    the number of open piles of the new board
+   */
+  void gameStarted(int numCascadePiles, int numOpenPiles);
+
+  /**
+   * Called after cards were moved from one pile to another, including moves that were undone or
+   * redone. The moved cards are the last {@code count} cards of the destination pile.
+   *
+   * @param source         the type of the pile the cards were taken from
+   * @param pileNumber     the index of the pile the cards were taken from
+   * @param count          the number of cards moved
+   * @param destination    the type of the pile the cards were added to
+   * @param destPileNumber the index of the pile the cards were added to
+   * @param sourceSize     the number of cards left in the source pile
+   * @param destSize       the number of cards now in the destination pile
+   */
+  void cardsMoved(PileType source, int pileNumber, int count, PileType destination,
+                  int destPileNumber, int sourceSize, int destSize);
+
+  /**
+   * Called after a move put the last card of the deck into the foundation piles.
+   */
+  void gameOver();
+}
@@ -1,5 +1,7 @@
 package cs3500.freecell.model;
 
+import java.util.List;
+
 /**
  * This interface represents different operations that a freecell model must support to return
  * various aspects of its state. This interface does not provide any operations to mutate the state
@@ -86,4 +88,61 @@ public interface FreecellModelState<K> {
    * @throws IllegalStateException    if the game has not started
    */
   K getOpenCardAt(int pileIndex);
+
+  /**
+   * Copy every card of the given cascade pile into the given array, from the first card dealt to
+   * the last, so a whole pile can be read with one call.
+   *
+   * @param pileIndex the index of the cascade pile, starting at 0
+   * @param cards     the array the cards are copied into, starting at index 0
+   * @return the number of cards copied
+   * @throws IllegalArgumentException if the pileIndex is invalid or the array is null or smaller
+   *                                  than the pile
+   * @throws IllegalStateException    if the game has not started
+   */
+  int copyCascadePile(int pileIndex, K[] cards);
+
+  /**
+   * Copy every card of the given foundation pile into the given array, from the ace up.
+   *
+   * @param pileIndex the index of the foundation pile, starting at 0
+   * @param cards     the array the cards are copied into, starting at index 0
+   * @return the number of cards copied
+   * @throws IllegalArgumentException if the pileIndex is invalid or the array is null or smaller
+   *                                  than the pile
+   * @throws IllegalStateException    if the game has not started
+   */
+  int copyFoundationPile(int pileIndex, K[] cards);
+
+  /**
+   * Get a read-only list of the cards of the given cascade pile, from the first card dealt to the
+   * last. The list is not a copy: it shows later moves made in the game.
+   *
+   * @param pileIndex the index of the cascade pile, starting at 0
+   * @return the cards of the pile
+   * @throws IllegalArgumentException if the pileIndex is invalid
+   * @throws IllegalStateException    if the game has not started
+   */
+  List<K> getCascadePile(int pileIndex);
+
+  /**
+   * Get a read-only list of the cards of the given foundation pile, from the ace up. The list is
+   * not a copy: it shows later moves made in the game.
+   *
+   * @param pileIndex the index of the foundation pile, starting at 0
+   * @return the cards of the pile
+   * @throws IllegalArgumentException if the pileIndex is invalid
+   * @throws IllegalStateException    if the game has not started
+   */
+  List<K> getFoundationPile(int pileIndex);
+
+  /**
+   * Get a 64-bit hash of the current position of the game. Games with the same cards in the same
+   * piles have the same hash, so it can be used to detect repeated positions cheaply. The hash is
+   * kept up to date as cards move rather than computed from the whole board.
+   *
+   * @return the hash of the current position
+   * @throws IllegalStateException if the game has not started
+   */
+  long getPositionHash();
 }
@@ -0,0 +1,400 @@
+package cs3500.freecell.model;
+
+import java.util.Arrays;
+
+/**
+ * To represent an immutable snapshot of the piles of a game of freecell. The cards are stored as
+ * their indices (see {@link Card#getIndex()}) in a single byte array laid out as: the number of
+ * cards of each cascade pile, the cards of every cascade pile from the first to the last, the
+ * card of each open pile and the last card of each foundation pile, using
+ * {@link ArrayPileStorage#EMPTY} for empty open and foundation piles. A position takes a few dozen
+ * bytes, so many of them can be kept around without keeping whole models alive.
+ */
+public final class FreecellPosition {
+  private final int numCascadePiles;
+  private final int numOpenPiles;
+  private final byte[] data;
+  private final long key;
+  private final int hash;
+
+  /**
+   * Makes a position from its encoded data.
+   *
+   * @param numCascadePiles is the number of cascade piles.
+   * @param numOpenPiles    is the number of open piles.
+   * @param data            is the encoded piles, it is not copied.
+   * @param key             is the Zobrist hash of the piles.
+   */
+  FreecellPosition(int numCascadePiles, int numOpenPiles, byte[] data, long key) {
+    this.numCascadePiles = numCascadePiles;
+    this.numOpenPiles = numOpenPiles;
+    this.data = data;
+    this.key = key;
+    this.hash = 31 * (31 * numCascadePiles + numOpenPiles) + Arrays.hashCode(data);
+  }
+
+  /**
+   * Makes a position holding the current contents of the given piles.
+   *
+   * @param piles is the storage being copied.
+   * @return the position of the piles.
+   */
+  static FreecellPosition of(ArrayPileStorage piles) {
+    int numCascades = piles.getNumCascades();
+    int numOpens = piles.getNumOpens();
+    int cardsInCascades = 0;
+    for (int i = 0; i < numCascades; i++) {
+      cardsInCascades += piles.getNumCardsInCascade(i);
+    }
+    byte[] data = new byte[numCascades + cardsInCascades + numOpens
+            + ArrayPileStorage.NUM_FOUNDATIONS];
+    int next = numCascades;
+    for (int i = 0; i < numCascades; i++) {
+      int size = piles.getNumCardsInCascade(i);
+      data[i] = (byte) size;
+      for (int j = 0; j < size; j++) {
+        data[next++] = (byte) piles.getCascadeCard(i, j);
+      }
+    }
+    for (int i = 0; i < numOpens; i++) {
+      data[next++] = (byte) piles.getOpenCard(i);
+    }
+    for (int i = 0; i < ArrayPileStorage.NUM_FOUNDATIONS; i++) {
+      data[next++] = (byte) piles.getFoundationTop(i);
+    }
+    return new FreecellPosition(numCascades, numOpens, data, piles.getHash());
+  }
+
+  /**
+   * Replaces the contents of the given piles with the cards of this position. The piles must have
+   * the same number of cascade and open piles as this position.
+   *
+   * @param piles is the storage being filled.
+   */
+  void restoreTo(ArrayPileStorage piles) {
+    piles.clear();
+    int next = this.numCascadePiles;
+    for (int i = 0; i < this.numCascadePiles; i++) {
+      for (int j = 0; j < this.data[i]; j++) {
+        piles.addToCascade(i, this.data[next++]);
+      }
+    }
+    for (int i = 0; i < this.numOpenPiles; i++) {
+      int card = this.data[next++];
+      if (card != ArrayPileStorage.EMPTY) {
+        piles.addToOpen(i, card);
+      }
+    }
+    for (int i = 0; i < ArrayPileStorage.NUM_FOUNDATIONS; i++) {
+      int top = this.data[next++];
+      if (top != ArrayPileStorage.EMPTY) {
+        for (int card = top - top % 13; card <= top; card++) {
+          piles.addToFoundation(i, card);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the number of cascade piles in this position.
+   *
+   * @return the number of cascade piles.
+   */
+  public int getNumCascadePiles() {
+    return this.numCascadePiles;
+  }
+
+  /**
+   * Gets the number of open piles in this position.
+   *
+   * @return the number of open piles.
+   */
+  public int getNumOpenPiles() {
+    return this.numOpenPiles;
+  }
+
+  /**
+   * Gets the number of cards in a cascade pile.
+   *
+   * @param pileIndex is the index of the cascade pile, starting at 0.
+   * @return the number of cards in the pile.
+   * @throws IllegalArgumentException if the pile index is invalid.
+   */
+  public int getNumCardsInCascadePile(int pileIndex) {
+    if (pileIndex < 0 || pileIndex >= this.numCascadePiles) {
+      throw new IllegalArgumentException("Invalid index");
+    }
+    return this.data[pileIndex];
+  }
+
+  /**
+   * Gets the index of a card in a cascade pile.
+   *
+   * @param pileIndex is the index of the cascade pile, starting at 0.
+   * @param cardIndex is the position of the card in the pile, starting at 0.
+   * @return the index of the card (see {@link Card#fromIndex(int)}).
+   * @throws IllegalArgumentException if the pile index or card index is invalid.
+   */
+  public int getCascadeCard(int pileIndex, int cardIndex) {
+    if (cardIndex < 0 || cardIndex >= this.getNumCardsInCascadePile(pileIndex)) {
+      throw new IllegalArgumentException("Card index is invalid");
+    }
+    int start = this.numCascadePiles;
+    for (int i = 0; i < pileIndex; i++) {
+      start += this.data[i];
+    }
+    return this.data[start + cardIndex];
+  }
+
+  /**
+   * Gets the index of the card in an open pile.
+   *
+   * @param pileIndex is the index of the open pile, starting at 0.
+   * @return the index of the card, or {@link ArrayPileStorage#EMPTY} if the pile is empty.
+   * @throws IllegalArgumentException if the pile index is invalid.
+   */
+  public int getOpenCard(int pileIndex) {
+    if (pileIndex < 0 || pileIndex >= this.numOpenPiles) {
+      throw new IllegalArgumentException("Invalid index");
+    }
+    return this.data[this.openStart() + pileIndex];
+  }
+
+  /**
+   * Gets the index of the last card of a foundation pile.
+   *
+   * @param pileIndex is the index of the foundation pile, starting at 0.
+   * @return the index of the card, or {@link ArrayPileStorage#EMPTY} if the pile is empty.
+   * @throws IllegalArgumentException if the pile index is invalid.
+   */
+  public int getFoundationTop(int pileIndex) {
+    if (pileIndex < 0 || pileIndex >= ArrayPileStorage.NUM_FOUNDATIONS) {
+      throw new IllegalArgumentException("Invalid index");
+    }
+    return this.data[this.openStart() + this.numOpenPiles + pileIndex];
+  }
+
+  /**
+   * Gets a 64-bit key of this position, the Zobrist hash of its piles. It is the same as the
+   * {@link FreecellModelState#getPositionHash()} of a game in this position, so equal positions
+   * always have the same key, and different positions almost never do.
+   *
+   * @return the key of the position.
+   */
+  public long getKey() {
+    return this.key;
+  }
+
+  /**
+   * Gets the representative of the positions that only differ from this one in the order of their
+   * piles. Moving a card never depends on which cascade, open or foundation pile it is in, only on
+   * what the piles hold, so all of these positions are won or lost alike and a search only needs
+   * to look at one of them. In the representative, the cascade piles are sorted by their first
+   * card with the empty piles last, the open piles are sorted by their card with the empty piles
+   * last, and foundation pile i holds the cards of the suit of index i.
+   *
+   * @return the canonical position, which is this position if it is already canonical.
+   */
+  public FreecellPosition canonical() {
+    int[] starts = new int[this.numCascadePiles];
+    int[] order = new int[this.numCascadePiles];
+    int next = this.numCascadePiles;
+    for (int i = 0; i < this.numCascadePiles; i++) {
+      starts[i] = next;
+      next += this.data[i];
+      // insertion sort of the piles by their first card, there are only a few of them.
+      int j = i;
+      while (j > 0 && this.firstCard(order[j - 1], starts) > this.firstCard(i, starts)) {
+        order[j] = order[j - 1];
+        j -= 1;
+      }
+      order[j] = i;
+    }
+
+    int openStart = this.openStart();
+    int[] opens = new int[this.numOpenPiles];
+    for (int i = 0; i < this.numOpenPiles; i++) {
+      // an empty pile counts as larger than every card, so it sorts last.
+      opens[i] = this.data[openStart + i] == ArrayPileStorage.EMPTY
+              ? Card.DECK_SIZE : this.data[openStart + i];
+    }
+    Arrays.sort(opens);
+
+    byte[] canonical = new byte[this.data.length];
+    int to = this.numCascadePiles;
+    for (int i = 0; i < this.numCascadePiles; i++) {
+      int pile = order[i];
+      canonical[i] = this.data[pile];
+      System.arraycopy(this.data, starts[pile], canonical, to, this.data[pile]);
+      to += this.data[pile];
+    }
+    for (int i = 0; i < this.numOpenPiles; i++) {
+      canonical[to++] = opens[i] == Card.DECK_SIZE ? ArrayPileStorage.EMPTY : (byte) opens[i];
+    }
+    for (int suit = 0; suit < ArrayPileStorage.NUM_FOUNDATIONS; suit++) {
+      canonical[to + suit] = ArrayPileStorage.EMPTY;
+    }
+    for (int i = 0; i < ArrayPileStorage.NUM_FOUNDATIONS; i++) {
+      int top = this.data[openStart + this.numOpenPiles + i];
+      if (top != ArrayPileStorage.EMPTY) {
+        canonical[to + top / 13] = (byte) top;
+      }
+    }
+
+    if (Arrays.equals(canonical, this.data)) {
+      return this;
+    }
+    return new FreecellPosition(this.numCascadePiles, this.numOpenPiles, canonical,
+            keyOf(this.numCascadePiles, this.numOpenPiles, canonical));
+  }
+
+  /**
+   * Gets a copy of the encoded data of this position, laid out as described in this class. Together
+   * with the number of cascade and open piles, it is all that is needed to make the position again
+   * with {@link #fromBytes(int, int, byte[])}, so positions can be written to files.
+   *
+   * @return the encoded position.
+   */
+  public byte[] toBytes() {
+    return this.data.clone();
+  }
+
+  /**
+   * Copies the encoded data of this position into part of an array, without making a new array
+   * (see {@link #toBytes()}).
+   *
+   * @param destination is the array the data is copied into.
+   * @param offset      is the index of the array the first byte is copied to.
+   * @return the number of bytes copied.
+   * @throws IllegalArgumentException if the array is null or the data does not fit after the
+   *                                  offset.
+   */
+  public int copyBytes(byte[] destination, int offset) {
+    if (destination == null || offset < 0 || offset > destination.length - this.data.length) {
+      throw new IllegalArgumentException("Position does not fit in the array.");
+    }
+    System.arraycopy(this.data, 0, destination, offset, this.data.length);
+    return this.data.length;
+  }
+
+  /**
+   * Makes a position from data encoded by {@link #toBytes()}. Any bytes after the end of the
+   * encoded position are ignored, so positions can be read from fixed size records.
+   *
+   * @param numCascadePiles is the number of cascade piles of the position.
+   * @param numOpenPiles    is the number of open piles of the position.
+   * @param bytes           is the encoded position, it is copied.
+   * @return the position.
+   * @throws IllegalArgumentException if the bytes do not hold a position with every card of the
+   *                                  deck exactly once.
+   */
+  public static FreecellPosition fromBytes(int numCascadePiles, int numOpenPiles, byte[] bytes) {
+    if (bytes == null || numCascadePiles <= 0 || numOpenPiles <= 0
+            || bytes.length < numCascadePiles) {
+      throw new IllegalArgumentException("Invalid position");
+    }
+    int length = numCascadePiles + numOpenPiles + ArrayPileStorage.NUM_FOUNDATIONS;
+    for (int i = 0; i < numCascadePiles; i++) {
+      if (bytes[i] < 0 || bytes[i] > Card.DECK_SIZE) {
+        throw new IllegalArgumentException("Invalid position");
+      }
+      length += bytes[i];
+    }
+    if (length > bytes.length) {
+      throw new IllegalArgumentException("Invalid position");
+    }
+    byte[] data = Arrays.copyOf(bytes, length);
+
+    long seen = 0;
+    int foundations = length - ArrayPileStorage.NUM_FOUNDATIONS;
+    for (int i = numCascadePiles; i < length; i++) {
+      int card = data[i];
+      if (card == ArrayPileStorage.EMPTY && i >= length - numOpenPiles
+              - ArrayPileStorage.NUM_FOUNDATIONS) {
+        continue;
+      }
+      if (card < 0 || card >= Card.DECK_SIZE) {
+        throw new IllegalArgumentException("Invalid position");
+      }
+      // a foundation pile holds every card of its suit up to its last card.
+      int first = i >= foundations ? card - card % 13 : card;
+      for (int c = first; c <= card; c++) {
+        if ((seen & 1L << c) != 0) {
+          throw new IllegalArgumentException("Invalid position");
+        }
+        seen |= 1L << c;
+      }
+    }
+    if (seen != (1L << Card.DECK_SIZE) - 1) {
+      throw new IllegalArgumentException("Invalid position");
+    }
+    return new FreecellPosition(numCascadePiles, numOpenPiles, data,
+            keyOf(numCascadePiles, numOpenPiles, data));
+  }
+
+  /**
+   * Computes the Zobrist hash of encoded piles, the same hash an {@link ArrayPileStorage} holding
+   * them would have.
+   */
+  private static long keyOf(int numCascadePiles, int numOpenPiles, byte[] data) {
+    long key = 0;
+    int next = numCascadePiles;
+    for (int i = 0; i < numCascadePiles; i++) {
+      for (int depth = 0; depth < data[i]; depth++) {
+        key ^= ArrayPileStorage.cascadeKey(data[next++], i, depth);
+      }
+    }
+    for (int i = 0; i < numOpenPiles; i++) {
+      int card = data[next++];
+      if (card != ArrayPileStorage.EMPTY) {
+        key ^= ArrayPileStorage.openKey(card, i);
+      }
+    }
+    for (int i = 0; i < ArrayPileStorage.NUM_FOUNDATIONS; i++) {
+      int top = data[next++];
+      if (top != ArrayPileStorage.EMPTY) {
+        for (int card = top - top % 13; card <= top; card++) {
+          key ^= ArrayPileStorage.foundationKey(card, i);
+        }
+      }
+    }
+    return key;
+  }
+
+  /**
+   * Gets the first card of a cascade pile for sorting the piles, larger than every card if the pile
+   * is empty.
+   */
+  private int firstCard(int pile, int[] starts) {
+    return this.data[pile] == 0 ? Card.DECK_SIZE : this.data[starts[pile]];
+  }
+
+  /**
+   * Gets where the open piles start in the encoded data.
+   *
+   * @return the offset of the first open pile.
+   */
+  private int openStart() {
+    return this.data.length - this.numOpenPiles - ArrayPileStorage.NUM_FOUNDATIONS;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof FreecellPosition)) {
+      return false;
+    }
+    FreecellPosition other = (FreecellPosition) o;
+    return this.hash == other.hash
+            && this.numCascadePiles == other.numCascadePiles
+            && this.numOpenPiles == other.numOpenPiles
+            && Arrays.equals(this.data, other.data);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.hash;
+  }
+}
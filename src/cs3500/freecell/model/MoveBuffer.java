@@ -0,0 +1,159 @@
+package cs3500.freecell.model;
+
+/**
+ * To represent a reusable list of moves in a game of freecell. Each move is packed into a single
+ * long holding the source pile, the index of the first card being moved and the destination pile
+ * (see {@link PackedMove}), so filling a buffer that already has enough room does not allocate
+ * anything.
+ */
+public final class MoveBuffer {
+  private long[] moves;
+  private int size;
+
+  /**
+   * Makes an empty buffer with room for a typical number of moves.
+   */
+  public MoveBuffer() {
+    this(64);
+  }
+
+  /**
+   * Makes an empty buffer.
+   *
+   * @param capacity is the number of moves the buffer can hold before it has to grow.
+   * @throws IllegalArgumentException if the capacity is not positive.
+   */
+  public MoveBuffer(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive.");
+    }
+    this.moves = new long[capacity];
+    this.size = 0;
+  }
+
+  /**
+   * Removes every move from the buffer, keeping its room.
+   */
+  public void clear() {
+    this.size = 0;
+  }
+
+  /**
+   * Gets the number of moves in the buffer.
+   *
+   * @return the number of moves.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Adds a move at the end of the buffer.
+   *
+   * @param source         is the type of the source pile.
+   * @param pileNumber     is the index of the source pile.
+   * @param cardIndex      is the index of the first card being moved from the source pile.
+   * @param destination    is the type of the destination pile.
+   * @param destPileNumber is the index of the destination pile.
+   */
+  public void add(PileType source, int pileNumber, int cardIndex,
+                  PileType destination, int destPileNumber) {
+    this.addPacked(PackedMove.pack(source, pileNumber, cardIndex, destination,
+            destPileNumber));
+  }
+
+  /**
+   * Adds a move at the end of the buffer from its packed form.
+   *
+   * @param move is the move, as returned by {@link #getPacked(int)}.
+   */
+  public void addPacked(long move) {
+    if (this.size == this.moves.length) {
+      long[] larger = new long[this.moves.length * 2];
+      System.arraycopy(this.moves, 0, larger, 0, this.size);
+      this.moves = larger;
+    }
+    this.moves[this.size] = move;
+    this.size += 1;
+  }
+
+  /**
+   * Gets a move packed into a single long, so it can be kept without its buffer and added to a
+   * buffer again with {@link #addPacked(long)}. The pile indices keep all of their bits.
+   *
+   * @param index is the index of the move in the buffer.
+   * @return the packed move.
+   * @throws IndexOutOfBoundsException if the index is not less than the size of the buffer.
+   */
+  public long getPacked(int index) {
+    return this.get(index);
+  }
+
+  /**
+   * Gets the type of the source pile of a move.
+   *
+   * @param index is the index of the move in the buffer.
+   * @return the type of the source pile.
+   * @throws IndexOutOfBoundsException if the index is not less than the size of the buffer.
+   */
+  public PileType getSource(int index) {
+    return PackedMove.source(this.get(index));
+  }
+
+  /**
+   * Gets the index of the source pile of a move.
+   *
+   * @param index is the index of the move in the buffer.
+   * @return the index of the source pile.
+   * @throws IndexOutOfBoundsException if the index is not less than the size of the buffer.
+   */
+  public int getPileNumber(int index) {
+    return PackedMove.pileNumber(this.get(index));
+  }
+
+  /**
+   * Gets the index of the first card being moved from the source pile.
+   *
+   * @param index is the index of the move in the buffer.
+   * @return the index of the card in the source pile.
+   * @throws IndexOutOfBoundsException if the index is not less than the size of the buffer.
+   */
+  public int getCardIndex(int index) {
+    return PackedMove.amount(this.get(index));
+  }
+
+  /**
+   * Gets the type of the destination pile of a move.
+   *
+   * @param index is the index of the move in the buffer.
+   * @return the type of the destination pile.
+   * @throws IndexOutOfBoundsException if the index is not less than the size of the buffer.
+   */
+  public PileType getDestination(int index) {
+    return PackedMove.destination(this.get(index));
+  }
+
+  /**
+   * Gets the index of the destination pile of a move.
+   *
+   * @param index is the index of the move in the buffer.
+   * @return the index of the destination pile.
+   * @throws IndexOutOfBoundsException if the index is not less than the size of the buffer.
+   */
+  public int getDestPileNumber(int index) {
+    return PackedMove.destPileNumber(this.get(index));
+  }
+
+  /**
+   * Gets a packed move, checking its index.
+   *
+   * @param index is the index of the move in the buffer.
+   * @return the packed move.
+   */
+  private long get(int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("Invalid move index");
+    }
+    return this.moves[index];
+  }
+}
@@ -0,0 +1,117 @@
+package cs3500.freecell.model;
+
+/**
+ * To represent the history of the moves made in a game of freecell, used to undo and redo them.
+ * Each move is packed into a single long holding the source pile, the destination pile and the
+ * number of cards moved (see {@link PackedMove}), and moves that were undone are kept after the
+ * cursor until a new move is recorded.
+ */
+final class MoveJournal {
+  private long[] entries;
+  private int size;
+  private int cursor;
+
+  /**
+   * Makes an empty journal.
+   */
+  MoveJournal() {
+    this.entries = new long[64];
+    this.size = 0;
+    this.cursor = 0;
+  }
+
+  /**
+   * Records a move after the last move that was not undone, discarding the moves that can be
+   * redone.
+   *
+   * @param source         is the type of the source pile.
+   * @param pileNumber     is the index of the source pile.
+   * @param count          is the number of cards moved.
+   * @param destination    is the type of the destination pile.
+   * @param destPileNumber is the index of the destination pile.
+   */
+  void record(PileType source, int pileNumber, int count, PileType destination,
+              int destPileNumber) {
+    if (this.cursor == this.entries.length) {
+      long[] larger = new long[this.entries.length * 2];
+      System.arraycopy(this.entries, 0, larger, 0, this.cursor);
+      this.entries = larger;
+    }
+    this.entries[this.cursor] = PackedMove.pack(source, pileNumber, count, destination,
+            destPileNumber);
+    this.cursor += 1;
+    this.size = this.cursor;
+  }
+
+  /**
+   * Removes every move from the journal.
+   */
+  void clear() {
+    this.size = 0;
+    this.cursor = 0;
+  }
+
+  /**
+   * Copies the moves that can be redone, so they can be put back after the journal is changed.
+   *
+   * @return the packed moves after the cursor, oldest first.
+   */
+  long[] copyRedo() {
+    long[] redo = new long[this.size - this.cursor];
+    System.arraycopy(this.entries, this.cursor, redo, 0, redo.length);
+    return redo;
+  }
+
+  /**
+   * Replaces the moves that can be redone with the given ones.
+   *
+   * @param redo is the packed moves that can be redone, as returned by {@link #copyRedo()}.
+   */
+  void restoreRedo(long[] redo) {
+    if (this.cursor + redo.length > this.entries.length) {
+      long[] larger = new long[Math.max(this.entries.length * 2, this.cursor + redo.length)];
+      System.arraycopy(this.entries, 0, larger, 0, this.cursor);
+      this.entries = larger;
+    }
+    System.arraycopy(redo, 0, this.entries, this.cursor, redo.length);
+    this.size = this.cursor + redo.length;
+  }
+
+  /**
+   * Checks if there is a move that can be undone.
+   *
+   * @return true if a move was recorded and not undone.
+   */
+  boolean canUndo() {
+    return this.cursor > 0;
+  }
+
+  /**
+   * Checks if there is a move that can be redone.
+   *
+   * @return true if a move was undone and no move was recorded since.
+   */
+  boolean canRedo() {
+    return this.cursor < this.size;
+  }
+
+  /**
+   * Steps back over the last move that was not undone.
+   *
+   * @return the packed move being undone, see {@link PackedMove}.
+   */
+  long undo() {
+    this.cursor -= 1;
+    return this.entries[this.cursor];
+  }
+
+  /**
+   * Steps forward over the first move that was undone.
+   *
+   * @return the packed move being redone, see {@link PackedMove}.
+   */
+  long redo() {
+    this.cursor += 1;
+    return this.entries[this.cursor - 1];
+  }
+}
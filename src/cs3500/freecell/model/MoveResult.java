@@ -0,0 +1,44 @@
+package cs3500.freecell.model;
+
+/**
+ * Represents the outcome of trying to make a move in a game of freecell: either the move was made,
+ * or the reason why it is not allowed.
+ */
+public enum MoveResult {
+  SUCCESS("Move made"),
+  GAME_NOT_STARTED("The game has not started !"),
+  INVALID_SOURCE("Can't move cards out of this type of pile !"),
+  INVALID_PILE_INDEX("Invalid pile index"),
+  INVALID_CARD_INDEX("Card being moved should be the last card in the pile"),
+  INVALID_BUILD("Invalid build"),
+  BUILD_TOO_LARGE("Not enough empty piles to move this build"),
+  BUILD_INTO_NON_CASCADE("Can't add a build into non-cascade pile !"),
+  OPEN_PILE_FULL("Open piles can hold only one card"),
+  INVALID_CASCADE_ORDER("Incorrect Order for cascade pile"),
+  INVALID_FOUNDATION_ORDER("Incorrect Order for foundation pile"),
+  NOT_AN_ACE("Incorrect Order (Not an Ace)");
+
+  private final String message;
+
+  MoveResult(String message) {
+    this.message = message;
+  }
+
+  /**
+   * Gets a description of the outcome.
+   *
+   * @return the message of the outcome.
+   */
+  public String getMessage() {
+    return this.message;
+  }
+
+  /**
+   * Checks if the move was made.
+   *
+   * @return true if the outcome is {@link #SUCCESS}.
+   */
+  public boolean isSuccess() {
+    return this == SUCCESS;
+  }
+}
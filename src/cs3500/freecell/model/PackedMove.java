@@ -0,0 +1,70 @@
+package cs3500.freecell.model;
+
+/**
+ * To represent the layout of a move of freecell packed into a single long, shared by the buffers
+ * of moves and the journal of a game so the two can never disagree. From the highest bits down, a
+ * packed move holds 2 bits for the type of the source pile, 2 bits for the type of the destination
+ * pile, 24 bits for the index of the source pile, 24 bits for the index of the destination pile and
+ * 8 bits for an amount, which is either the index of the first card moved or the number of cards
+ * moved.
+ */
+final class PackedMove {
+  private static final PileType[] TYPES = PileType.values();
+
+  private PackedMove() {
+  }
+
+  /**
+   * Packs a move into a long.
+   *
+   * @param source         is the type of the source pile.
+   * @param pileNumber     is the index of the source pile.
+   * @param amount         is the card index or the number of cards of the move.
+   * @param destination    is the type of the destination pile.
+   * @param destPileNumber is the index of the destination pile.
+   * @return the packed move.
+   */
+  static long pack(PileType source, int pileNumber, int amount, PileType destination,
+                   int destPileNumber) {
+    return (long) source.ordinal() << 62
+            | (long) destination.ordinal() << 60
+            | ((long) pileNumber & 0xFFFFFF) << 32
+            | ((long) destPileNumber & 0xFFFFFF) << 8
+            | amount & 0xFF;
+  }
+
+  /**
+   * Gets the type of the source pile of a packed move.
+   */
+  static PileType source(long move) {
+    return TYPES[(int) (move >>> 62)];
+  }
+
+  /**
+   * Gets the type of the destination pile of a packed move.
+   */
+  static PileType destination(long move) {
+    return TYPES[(int) (move >>> 60) & 0x3];
+  }
+
+  /**
+   * Gets the index of the source pile of a packed move.
+   */
+  static int pileNumber(long move) {
+    return (int) (move >>> 32) & 0xFFFFFF;
+  }
+
+  /**
+   * Gets the index of the destination pile of a packed move.
+   */
+  static int destPileNumber(long move) {
+    return (int) (move >>> 8) & 0xFFFFFF;
+  }
+
+  /**
+   * Gets the card index or the number of cards of a packed move.
+   */
+  static int amount(long move) {
+    return (int) move & 0xFF;
+  }
+}
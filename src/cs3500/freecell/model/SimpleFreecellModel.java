@@ -1,18 +1,33 @@
 package cs3500.freecell.model;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 /**
- * To represent a freecell game that uses {@Cards}.
+ * To represent a freecell game that uses {@Cards}. The piles are kept in an
+ * {@link ArrayPileStorage}, so moving a card does not allocate and checking if the game is over
+ * takes constant time.
  */
 public class SimpleFreecellModel implements FreecellModel<Card> {
+  private static final Suits[] DECK_SUIT_ORDER = {Suits.DIAMOND, Suits.CLUBS, Suits.SPADES,
+    Suits.HEART};
+
   protected boolean gameActive;
-  protected List<List<Card>> cascadePile;
-  protected List<List<Card>> openPile;
-  protected List<List<Card>> foundationPile;
+  protected ArrayPileStorage piles;
+  private final MoveJournal journal;
+  private byte[] dealOrder;
+  private byte[] nextDealOrder;
+  private boolean dealt;
+  private int dealtCascades;
+  private int dealtOpens;
+  private final List<FreecellModelListener> listeners;
+  // listener events of a batch of moves, held until the whole batch was made.
+  private boolean holdingEvents;
+  private long[] heldMoves;
+  private int[] heldSizes;
+  private int heldEvents;
 
   /**
    * Initializes a game of Simple Freecell.
@@ -21,17 +36,48 @@ public class SimpleFreecellModel implements FreecellModel<Card> {
    */
   public SimpleFreecellModel() {
     this.gameActive = false;
+    this.journal = new MoveJournal();
+    this.dealOrder = new byte[Card.DECK_SIZE];
+    this.nextDealOrder = new byte[Card.DECK_SIZE];
+    this.dealt = false;
+    this.listeners = new ArrayList<>();
+  }
+
+  /**
+   * Makes a fork of the given game, see {@link #fork()}.
+   *
+   * @param parent is the game being forked.
+   */
+  protected SimpleFreecellModel(SimpleFreecellModel parent) {
+    this.gameActive = parent.gameActive;
+    this.piles = parent.piles == null ? null : parent.piles.fork();
+    this.journal = new MoveJournal();
+    this.dealOrder = parent.dealOrder.clone();
+    this.nextDealOrder = new byte[Card.DECK_SIZE];
+    this.dealt = parent.dealt;
+    this.dealtCascades = parent.dealtCascades;
+    this.dealtOpens = parent.dealtOpens;
+    this.listeners = new ArrayList<>();
+  }
+
+  /**
+   * Makes an independent copy of this game in its current position. The copy shares the cascade
+   * piles with this game and only copies a pile when a card is added to it by either game, so
+   * forking is cheap even when the copy is only used to try a few moves. The copy starts with no
+   * moves to undo and no listeners.
+   *
+   * @return the copy of this game.
+   */
+  public SimpleFreecellModel fork() {
+    return new SimpleFreecellModel(this);
   }
 
   @Override
   public List<Card> getDeck() {
-    List<Suits> suits = new ArrayList<>(Arrays.asList(Suits.DIAMOND, Suits.CLUBS, Suits.SPADES,
-            Suits.HEART));
-    List<Card> deck = new ArrayList<>();
-    for (int i = 1; i <= suits.size(); i++) {
+    List<Card> deck = new ArrayList<>(Card.DECK_SIZE);
+    for (Suits suit : DECK_SUIT_ORDER) {
       for (int j = 1; j <= 13; j++) {
-        Card card = new Card(suits.get(i - 1), j);
-        deck.add(card);
+        deck.add(Card.of(suit, j));
       }
     }
     return deck;
@@ -43,138 +89,370 @@ public class SimpleFreecellModel implements FreecellModel<Card> {
     this.checkValidPileNumbers(numCascadePiles, numOpenPiles);
     this.checkValidDeck(deck);
 
-    this.gameActive = true;
-
-    this.foundationPile = new ArrayList<>(4);
-    addPiles(4, this.foundationPile);
-    this.cascadePile = new ArrayList<>(numCascadePiles);
-    this.openPile = new ArrayList<>(numOpenPiles);
-    addPiles(numCascadePiles, this.cascadePile);
-    addPiles(numOpenPiles, this.openPile);
-
     if (shuffle) {
       Collections.shuffle(deck);
+      this.readDeck(deck);
+    }
+
+    byte[] previousDealOrder = this.dealOrder;
+    this.dealOrder = this.nextDealOrder;
+    this.nextDealOrder = previousDealOrder;
+    this.dealt = true;
+    this.dealtCascades = numCascadePiles;
+    this.dealtOpens = numOpenPiles;
+    this.restartDeal();
+  }
+
+  @Override
+  public void reset() {
+    this.gameActive = false;
+    this.journal.clear();
+    if (this.piles != null) {
+      this.piles.clear();
     }
+  }
 
-    dealCardsRobinHood(deck, numCascadePiles);
+  @Override
+  public void restartDeal() {
+    if (!this.dealt) {
+      throw new IllegalStateException("No deck has been dealt yet !");
+    }
+    if (this.piles == null || this.piles.getNumCascades() != this.dealtCascades
+            || this.piles.getNumOpens() != this.dealtOpens) {
+      this.piles = new ArrayPileStorage(this.dealtCascades, this.dealtOpens);
+    }
+    this.journal.clear();
+    this.piles.deal(this.dealOrder, Card.DECK_SIZE);
+    this.gameActive = true;
+    this.notifyStarted();
+  }
+
+  @Override
+  public void addListener(FreecellModelListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener can't be null.");
+    }
+    this.listeners.add(listener);
+  }
+
+  @Override
+  public void removeListener(FreecellModelListener listener) {
+    this.listeners.remove(listener);
   }
 
   @Override
   public void move(PileType source, int pileNumber, int cardIndex,
                    PileType destination, int destPileNumber) {
+    MoveResult result = this.tryMove(source, pileNumber, cardIndex, destination, destPileNumber);
+    if (result == MoveResult.GAME_NOT_STARTED) {
+      throw new IllegalStateException(result.getMessage());
+    }
+    if (!result.isSuccess()) {
+      throw new IllegalArgumentException(result.getMessage());
+    }
+  }
 
-    this.checkValidMoveConditions(source);
+  @Override
+  public MoveResult tryMove(PileType source, int pileNumber, int cardIndex,
+                            PileType destination, int destPileNumber) {
+    MoveResult result = this.checkMove(source, pileNumber, cardIndex, destination,
+            destPileNumber);
+    if (result.isSuccess()) {
+      int count = source == PileType.OPEN ? 1
+              : this.piles.getNumCardsInCascade(pileNumber) - cardIndex;
+      this.applyMove(source, pileNumber, count, destination, destPileNumber);
+    }
+    return result;
+  }
 
-    Card card_being_moved = this.checkSourceCardIndex(pileNumber, cardIndex, source);
+  /**
+   * {@inheritDoc} Each move is checked and made in a single pass over the batch. The listeners are
+   * only told about the moves once the whole batch was made, so when a move is not legal the
+   * moves already made are taken back straight from the journal and the listeners never hear
+   * about any of them.
+   */
+  @Override
+  public int applyMoves(MoveBuffer moves) {
+    if (moves == null) {
+      throw new IllegalArgumentException("Move buffer can't be null.");
+    }
+    if (!this.gameActive) {
+      throw new IllegalStateException("The game has not started !");
+    }
+    // making a move discards the moves that can be redone, so they are kept in case of a failure.
+    long[] redo = this.journal.canRedo() ? this.journal.copyRedo() : null;
+    this.heldEvents = 0;
+    this.holdingEvents = true;
+    try {
+      for (int i = 0; i < moves.size(); i++) {
+        PileType source = moves.getSource(i);
+        int pileNumber = moves.getPileNumber(i);
+        int cardIndex = moves.getCardIndex(i);
+        if (!this.checkMove(source, pileNumber, cardIndex, moves.getDestination(i),
+                moves.getDestPileNumber(i)).isSuccess()) {
+          for (int j = 0; j < i; j++) {
+            this.undoEntry(this.journal.undo());
+          }
+          if (redo != null) {
+            this.journal.restoreRedo(redo);
+          }
+          this.heldEvents = 0;
+          return i;
+        }
+        int count = source == PileType.OPEN ? 1
+                : this.piles.getNumCardsInCascade(pileNumber) - cardIndex;
+        this.applyMove(source, pileNumber, count, moves.getDestination(i),
+                moves.getDestPileNumber(i));
+      }
+    } finally {
+      this.holdingEvents = false;
+    }
+    this.releaseEvents();
+    return -1;
+  }
 
-    switch (destination) {
-      case CASCADE:
-        add2CascadePile(card_being_moved, this.cascadePile.get(destPileNumber));
-        break;
-      case OPEN:
-        add2OpenPile(card_being_moved, this.openPile.get(destPileNumber));
-        break;
-      default:
-        add2FoundationPile(card_being_moved, this.foundationPile.get(destPileNumber));
-        break;
+  @Override
+  public void undo() {
+    if (!this.gameActive) {
+      throw new IllegalStateException("The game has not started !");
+    }
+    if (!this.journal.canUndo()) {
+      throw new IllegalStateException("There is no move to undo !");
     }
+    this.undoEntry(this.journal.undo());
+  }
 
-    this.removeMovingCard(pileNumber, cardIndex, source);
+  /**
+   * Moves the cards of a move of the journal back to where they came from.
+   *
+   * @param entry is the packed move being taken back.
+   */
+  private void undoEntry(long entry) {
+    this.transferCards(PackedMove.destination(entry), PackedMove.destPileNumber(entry),
+            PackedMove.amount(entry), PackedMove.source(entry), PackedMove.pileNumber(entry));
   }
 
   @Override
-  public boolean isGameOver() {
-    if (!gameActive) {
-      return false;
+  public void redo() {
+    if (!this.gameActive) {
+      throw new IllegalStateException("The game has not started !");
+    }
+    if (!this.journal.canRedo()) {
+      throw new IllegalStateException("There is no move to redo !");
     }
-    int foundation_0 = this.foundationPile.get(0).size();
-    int foundation_1 = this.foundationPile.get(1).size();
-    int foundation_2 = this.foundationPile.get(2).size();
-    int foundation_3 = this.foundationPile.get(3).size();
-    return foundation_0 == 13 && foundation_1 == 13 && foundation_2 == 13 && foundation_3 == 13;
+    long entry = this.journal.redo();
+    this.transferCards(PackedMove.source(entry), PackedMove.pileNumber(entry),
+            PackedMove.amount(entry), PackedMove.destination(entry),
+            PackedMove.destPileNumber(entry));
+  }
+
+  @Override
+  public int autoPlay() {
+    if (!this.gameActive) {
+      throw new IllegalStateException("The game has not started !");
+    }
+    int moved = 0;
+    boolean found = true;
+    while (found) {
+      found = false;
+      boolean finishing = this.cascadesInSequence();
+      for (int i = 0; i < this.piles.getNumCascades(); i++) {
+        int card = this.piles.getCascadeTop(i);
+        int foundation = this.autoPlayFoundation(card, finishing);
+        if (foundation != ArrayPileStorage.EMPTY) {
+          this.applyMove(PileType.CASCADE, i, 1, PileType.FOUNDATION, foundation);
+          moved += 1;
+          found = true;
+        }
+      }
+      for (int i = 0; i < this.piles.getNumOpens(); i++) {
+        int card = this.piles.getOpenCard(i);
+        int foundation = this.autoPlayFoundation(card, finishing);
+        if (foundation != ArrayPileStorage.EMPTY) {
+          this.applyMove(PileType.OPEN, i, 1, PileType.FOUNDATION, foundation);
+          moved += 1;
+          found = true;
+        }
+      }
+    }
+    return moved;
+  }
+
+  @Override
+  public int getLegalMoves(MoveBuffer moves) {
+    if (moves == null) {
+      throw new IllegalArgumentException("Move buffer can't be null.");
+    }
+    if (!this.gameActive) {
+      throw new IllegalStateException("The game has not started !");
+    }
+    moves.clear();
+    for (int i = 0; i < this.piles.getNumCascades(); i++) {
+      if (this.piles.getNumCardsInCascade(i) > 0) {
+        this.addLegalMovesFrom(PileType.CASCADE, i, moves);
+      }
+    }
+    for (int i = 0; i < this.piles.getNumOpens(); i++) {
+      if (this.piles.getOpenCard(i) != ArrayPileStorage.EMPTY) {
+        this.addLegalMovesFrom(PileType.OPEN, i, moves);
+      }
+    }
+    return moves.size();
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return this.gameActive && this.piles.isComplete();
   }
 
   @Override
   public int getNumCardsInFoundationPile(int index) {
-    this.checkGetCardNumberValid(index, this.foundationPile);
-    return this.foundationPile.get(index).size();
+    this.checkGetCardNumberValid(index, PileType.FOUNDATION);
+    return this.piles.getNumCardsInFoundation(index);
   }
 
   @Override
   public int getNumCascadePiles() {
-    return checkNumAtPile(this.cascadePile);
+    if (!this.gameActive) {
+      return -1;
+    }
+    return this.piles.getNumCascades();
   }
 
   @Override
   public int getNumCardsInCascadePile(int index) {
-    this.checkGetCardNumberValid(index, this.cascadePile);
-    return this.cascadePile.get(index).size();
+    this.checkGetCardNumberValid(index, PileType.CASCADE);
+    return this.piles.getNumCardsInCascade(index);
   }
 
   @Override
   public int getNumCardsInOpenPile(int index) {
-    this.checkGetCardNumberValid(index, this.openPile);
-    return this.openPile.get(index).size();
+    this.checkGetCardNumberValid(index, PileType.OPEN);
+    return this.piles.getOpenCard(index) == ArrayPileStorage.EMPTY ? 0 : 1;
   }
 
   @Override
   public int getNumOpenPiles() {
-    return checkNumAtPile(this.openPile);
+    if (!this.gameActive) {
+      return -1;
+    }
+    return this.piles.getNumOpens();
   }
 
   @Override
   public Card getFoundationCardAt(int pileIndex, int cardIndex) {
-    return getCardAtIndex(pileIndex, cardIndex, this.foundationPile);
+    this.checkGetCardNumberValid(pileIndex, PileType.FOUNDATION);
+    this.checkCardIndex(cardIndex, this.piles.getNumCardsInFoundation(pileIndex));
+    return Card.fromIndex(this.piles.getFoundationSuit(pileIndex) * 13 + cardIndex);
   }
 
   @Override
   public Card getCascadeCardAt(int pileIndex, int cardIndex) {
-    return getCardAtIndex(pileIndex, cardIndex, this.cascadePile);
+    this.checkGetCardNumberValid(pileIndex, PileType.CASCADE);
+    this.checkCardIndex(cardIndex, this.piles.getNumCardsInCascade(pileIndex));
+    return Card.fromIndex(this.piles.getCascadeCard(pileIndex, cardIndex));
   }
 
   @Override
   public Card getOpenCardAt(int pileIndex) {
-    checkGetCardNumberValid(pileIndex, this.openPile);
-    if (this.openPile.get(pileIndex).size() == 0) {
+    checkGetCardNumberValid(pileIndex, PileType.OPEN);
+    int card = this.piles.getOpenCard(pileIndex);
+    if (card == ArrayPileStorage.EMPTY) {
       return null;
     } else {
-      return this.openPile.get(pileIndex).get(0);
+      return Card.fromIndex(card);
+    }
+  }
+
+  @Override
+  public int copyCascadePile(int pileIndex, Card[] cards) {
+    this.checkGetCardNumberValid(pileIndex, PileType.CASCADE);
+    int size = this.piles.getNumCardsInCascade(pileIndex);
+    this.checkCopyArray(cards, size);
+    for (int i = 0; i < size; i++) {
+      cards[i] = Card.fromIndex(this.piles.getCascadeCard(pileIndex, i));
+    }
+    return size;
+  }
+
+  @Override
+  public int copyFoundationPile(int pileIndex, Card[] cards) {
+    this.checkGetCardNumberValid(pileIndex, PileType.FOUNDATION);
+    int size = this.piles.getNumCardsInFoundation(pileIndex);
+    this.checkCopyArray(cards, size);
+    int ace = this.piles.getFoundationSuit(pileIndex) * 13;
+    for (int i = 0; i < size; i++) {
+      cards[i] = Card.fromIndex(ace + i);
+    }
+    return size;
+  }
+
+  @Override
+  public List<Card> getCascadePile(int pileIndex) {
+    this.checkGetCardNumberValid(pileIndex, PileType.CASCADE);
+    return new PileView(PileType.CASCADE, pileIndex);
+  }
+
+  @Override
+  public List<Card> getFoundationPile(int pileIndex) {
+    this.checkGetCardNumberValid(pileIndex, PileType.FOUNDATION);
+    return new PileView(PileType.FOUNDATION, pileIndex);
+  }
+
+  @Override
+  public long getPositionHash() {
+    if (!this.gameActive) {
+      throw new IllegalStateException("Game is not active");
     }
+    return this.piles.getHash();
   }
 
   /**
-   * Deals the cards in a robin hood style fashion.
+   * Gets an immutable snapshot of the piles of the game.
    *
-   * @param deck is a list of cards.
+   * @return the current position of the game.
+   * @throws IllegalStateException if the game has not started.
    */
-  private void dealCardsRobinHood(List<Card> deck, int numCascadePile) {
-    List<Card> deckCopy = new ArrayList<>();
-    deckCopy.addAll(deck);
-    int deck_size = deckCopy.size();
-    int current_pile = 0;
-    while (deck_size > 0) {
-      this.cascadePile.get(current_pile).add(deckCopy.remove(0));
-      deck_size -= 1;
-      current_pile += 1;
-      if (deck_size <= 0) {
-        break;
-      }
-      if (current_pile >= numCascadePile) {
-        current_pile = 0;
-      }
+  public FreecellPosition getPosition() {
+    if (!this.gameActive) {
+      throw new IllegalStateException("Game is not active");
+    }
+    return FreecellPosition.of(this.piles);
+  }
+
+  /**
+   * Replaces the piles of the game with the cards of the given position, starting the game if it
+   * has not started yet. The position is not checked against the rules of the game.
+   *
+   * @param position is the position being restored.
+   * @throws IllegalArgumentException if the position is null.
+   */
+  public void restorePosition(FreecellPosition position) {
+    if (position == null) {
+      throw new IllegalArgumentException("Position can't be null.");
+    }
+    if (this.piles == null || this.piles.getNumCascades() != position.getNumCascadePiles()
+            || this.piles.getNumOpens() != position.getNumOpenPiles()) {
+      this.piles = new ArrayPileStorage(position.getNumCascadePiles(),
+              position.getNumOpenPiles());
     }
+    position.restoreTo(this.piles);
+    this.journal.clear();
+    this.gameActive = true;
+    this.notifyStarted();
   }
 
   /**
-   * Adds the number of piles to the list.
+   * Copies the indices of the cards of a deck that is already known to be valid into the next
+   * deal order.
    *
-   * @param numberPiles is the number of piles to be added to the list.
-   * @param pile        is the group of piles (foundation, cascade, open)
-   *                    to which the piles are added to.
+   * @param deck is a list of cards.
    */
-  private void addPiles(int numberPiles, List<List<Card>> pile) {
-    for (int i = 0; i < numberPiles; i++) {
-      pile.add(new ArrayList<>());
+  private void readDeck(List<Card> deck) {
+    int i = 0;
+    for (Card card : deck) {
+      this.nextDealOrder[i] = (byte) card.getIndex();
+      i += 1;
     }
   }
 
@@ -196,24 +474,30 @@ public class SimpleFreecellModel implements FreecellModel<Card> {
   }
 
   /**
-   * Checks if the deck is a valid deck (no repeats, all valid cards).
+   * Checks if the deck is a valid deck (no repeats, all valid cards) and copies the indices of its
+   * cards into the next deal order, which only replaces the current one once the game starts.
+   * Each card sets its bit in a mask of the 52 cards of a standard deck, so a repeated card is
+   * found in a single pass over the deck.
    *
    * @param deck is a list of cards.
    * @throws IllegalArgumentException if deck has a repeated card.
    * @throws IllegalArgumentException if deck has an invalid card.
    */
   private void checkValidDeck(List<Card> deck) {
-    deck.get(0).validCard();
-    for (int i = 0; i < deck.size() - 1; i++) {
-      Card current_card = deck.get(i);
-      current_card.validCard();
-      for (int j = i + 1; j < deck.size(); j++) {
-        Card compare = deck.get(j);
-        compare.validCard();
-        if (current_card.equals(compare)) {
-          throw new IllegalArgumentException("There exists duplicates in this deck");
-        }
+    long seen = 0;
+    int i = 0;
+    for (Card card : deck) {
+      int index = card.getIndex();
+      if (index < 0) {
+        card.validCard();
+      }
+      long bit = 1L << index;
+      if ((seen & bit) != 0) {
+        throw new IllegalArgumentException("There exists duplicates in this deck");
       }
+      seen |= bit;
+      this.nextDealOrder[i] = (byte) index;
+      i += 1;
     }
   }
 
@@ -231,171 +515,525 @@ public class SimpleFreecellModel implements FreecellModel<Card> {
   }
 
   /**
-   * Adds a card to the cascade pile following game restrictions.
+   * Checks a move against the rules of the game without making it. Only the last card of a pile
+   * can be moved.
    *
-   * @param pile       is the cascade pile.
-   * @param movingCard is the card being moved into the pile.
-   * @throws IllegalArgumentException if card being added is not in the correct order.
+   * @param source         is the type of the source pile.
+   * @param pileNumber     is the index of the source pile.
+   * @param cardIndex      is the index of the card being moved in the source pile.
+   * @param destination    is the type of the destination pile.
+   * @param destPileNumber is the index of the destination pile.
+   * @return {@link MoveResult#SUCCESS} if the move is allowed, otherwise the reason it is not.
    */
-  private void add2CascadePile(Card movingCard, List<Card> pile) {
-    Card destination_card = pile.get(pile.size() - 1);
+  protected MoveResult checkMove(PileType source, int pileNumber, int cardIndex,
+                                 PileType destination, int destPileNumber) {
+    MoveResult result = this.checkValidMoveConditions(source, pileNumber, destination,
+            destPileNumber);
+    if (!result.isSuccess()) {
+      return result;
+    }
 
-    if (!(movingCard.correctOrder(destination_card))) {
-      throw new IllegalArgumentException("Incorrect Order for cascade pile");
+    int card_being_moved = this.checkSourceCardIndex(pileNumber, cardIndex, source);
+    if (card_being_moved == ArrayPileStorage.EMPTY) {
+      return MoveResult.INVALID_CARD_INDEX;
     }
 
-    pile.add(movingCard);
+    switch (destination) {
+      case CASCADE:
+        return checkAdd2CascadePile(card_being_moved, destPileNumber);
+      case OPEN:
+        return checkAdd2OpenPile(destPileNumber);
+      default:
+        return checkAdd2FoundationPile(card_being_moved, destPileNumber);
+    }
   }
 
   /**
-   * Adds a card to the open pile according to game rules.
+   * Checks that a card can be added to the cascade pile following game restrictions.
    *
-   * @param pile       is the open pile.
-   * @param movingCard is the card being moved into the pile.
-   * @throws IllegalArgumentException if the open pile already has a card in it.
+   * @param movingCard is the index of the card being moved into the pile.
+   * @param pile       is the index of the cascade pile.
+   * @return {@link MoveResult#INVALID_CASCADE_ORDER} if the card being added is not in the
+   *         correct order, otherwise {@link MoveResult#SUCCESS}.
    */
-  protected void add2OpenPile(Card movingCard, List<Card> pile) {
-    if (pile.size() == 1) {
-      throw new IllegalArgumentException("Open piles can hold only one card");
+  private MoveResult checkAdd2CascadePile(int movingCard, int pile) {
+    int destination_card = this.piles.getCascadeTop(pile);
+
+    if (destination_card == ArrayPileStorage.EMPTY
+            || !Card.canStackOn(movingCard, destination_card)) {
+      return MoveResult.INVALID_CASCADE_ORDER;
     }
-    pile.add(movingCard);
+    return MoveResult.SUCCESS;
   }
 
   /**
-   * Adds a card to the open pile according to game rules.
+   * Checks that a card can be added to the open pile according to game rules.
    *
-   * @param pile        is the foundation pile.
-   * @param movingCard is the card being moved into the pile.
-   * @throws IllegalArgumentException if the card being added is in the incorrect order.
-   * @throws IllegalArgumentException if the pile size is 0 and input is not an ace.
-   */
-  protected void add2FoundationPile(Card movingCard, List<Card> pile) {
-    if (pile.size() > 0) {
-      Card destination_card = pile.get(pile.size() - 1);
-      if (!(movingCard.validFoundationAddition(destination_card))) {
-        throw new IllegalArgumentException("Incorrect Order for foundation pile");
-      }
-      pile.add(movingCard);
-    } else {
-      if (pile.size() == 0 && movingCard.initialValue()) {
-        pile.add(movingCard);
-      } else {
-        throw new IllegalArgumentException("Incorrect Order (Not an Ace)");
+   * @param pile is the index of the open pile.
+   * @return {@link MoveResult#OPEN_PILE_FULL} if the open pile already has a card in it,
+   *         otherwise {@link MoveResult#SUCCESS}.
+   */
+  protected MoveResult checkAdd2OpenPile(int pile) {
+    if (this.piles.getOpenCard(pile) != ArrayPileStorage.EMPTY) {
+      return MoveResult.OPEN_PILE_FULL;
+    }
+    return MoveResult.SUCCESS;
+  }
+
+  /**
+   * Checks that a card can be added to the foundation pile according to game rules.
+   *
+   * @param movingCard is the index of the card being moved into the pile.
+   * @param pile       is the index of the foundation pile.
+   * @return {@link MoveResult#INVALID_FOUNDATION_ORDER} if the card being added is in the
+   *         incorrect order, {@link MoveResult#NOT_AN_ACE} if the pile is empty and the card is
+   *         not an ace, otherwise {@link MoveResult#SUCCESS}.
+   */
+  protected MoveResult checkAdd2FoundationPile(int movingCard, int pile) {
+    int destination_card = this.piles.getFoundationTop(pile);
+    if (destination_card != ArrayPileStorage.EMPTY) {
+      if (!Card.canFollowOnFoundation(movingCard, destination_card)) {
+        return MoveResult.INVALID_FOUNDATION_ORDER;
       }
+    } else if (movingCard % 13 != 0) {
+      return MoveResult.NOT_AN_ACE;
     }
+    return MoveResult.SUCCESS;
   }
 
   /**
-   * Checks that the conditions to move a card are fulfilled.
+   * Checks that the conditions to move a card are fulfilled: the game has started, cards can be
+   * taken from the source pile and both piles exist.
    *
-   * @param type is type of pile from which a card is being moved.
-   * @throws IllegalArgumentException if pile type is open or foundation.
-   * @throws IllegalStateException    if game not active.
+   * @param source         is type of pile from which a card is being moved.
+   * @param pileNumber     is the index of the source pile.
+   * @param destination    is type of pile to which a card is being moved.
+   * @param destPileNumber is the index of the destination pile.
+   * @return the reason the move is not allowed, or {@link MoveResult#SUCCESS}.
    */
-  protected void checkValidMoveConditions(PileType type) {
+  protected MoveResult checkValidMoveConditions(PileType source, int pileNumber,
+                                                PileType destination, int destPileNumber) {
     if (!this.gameActive) {
-      throw new IllegalStateException("The game has not started !");
+      return MoveResult.GAME_NOT_STARTED;
     }
-    if (type == PileType.FOUNDATION) {
-      throw new IllegalArgumentException("Can't move cards out of this type of pile !");
+    if (source == PileType.FOUNDATION) {
+      return MoveResult.INVALID_SOURCE;
     }
+    if (pileNumber < 0 || pileNumber >= this.numPiles(source)
+            || destPileNumber < 0 || destPileNumber >= this.numPiles(destination)) {
+      return MoveResult.INVALID_PILE_INDEX;
+    }
+    return MoveResult.SUCCESS;
   }
 
   /**
    * Checks if the conditions for getting the size of a pile are valid.
    *
    * @param index is the index of the pile within the group of piles (foundation, open, cascade).
+   * @param type  is the type of the group of piles.
    * @throws IllegalArgumentException if index in out of range.
    * @throws IllegalStateException    if game is inactive.
    */
-  private void checkGetCardNumberValid(int index, List<List<Card>> pile) {
+  private void checkGetCardNumberValid(int index, PileType type) {
     if (!this.gameActive) {
       throw new IllegalStateException("Game is not active");
     }
-    if (index > (pile.size() - 1) || index < 0) {
+    if (index > (this.numPiles(type) - 1) || index < 0) {
       throw new IllegalArgumentException("Invalid index");
     }
   }
 
   /**
-   * Gets the number of piles in the given group of piles (open or cascade).
+   * Checks that an array can hold a whole pile.
    *
-   * @param piles is a group of piles (open or cascade).
-   * @return the number of piles in the group, as an integer, or -1 if the game has not started yet.
+   * @param cards is the array the pile is copied into.
+   * @param size  is the number of cards in the pile.
+   * @throws IllegalArgumentException if the array is null or too small.
    */
-  private int checkNumAtPile(List<List<Card>> piles) {
-    if (!this.gameActive) {
-      return -1;
+  private void checkCopyArray(Card[] cards, int size) {
+    if (cards == null || cards.length < size) {
+      throw new IllegalArgumentException("Array is too small for the pile");
+    }
+  }
+
+  /**
+   * Gets the number of piles of the given type.
+   *
+   * @param type is the type of the group of piles.
+   * @return the number of piles in the group.
+   */
+  private int numPiles(PileType type) {
+    switch (type) {
+      case CASCADE:
+        return this.piles.getNumCascades();
+      case OPEN:
+        return this.piles.getNumOpens();
+      default:
+        return ArrayPileStorage.NUM_FOUNDATIONS;
     }
-    return piles.size();
   }
 
   /**
-   * Checks if the pile and number cards are valid inputs.
+   * Checks if the card index is within a pile.
    *
-   * @param pileIndex is the index of the pile.
    * @param cardIndex is the index of the card within the pile.
-   * @param pileList  is a group of piles (open, cascade, foundation).
-   * @throws IllegalArgumentException if the pileIndex or cardIndex is invalid.
-   * @throws IllegalStateException    if the game has not started.
-   */
-  private Card getCardAtIndex(int pileIndex, int cardIndex, List<List<Card>> pileList) {
-    checkGetCardNumberValid(pileIndex, pileList);
-    List<Card> pile = pileList.get(pileIndex);
-    if (cardIndex >= pile.size() || cardIndex < 0) {
+   * @param pileSize  is the number of cards in the pile.
+   * @throws IllegalArgumentException if the cardIndex is invalid.
+   */
+  private void checkCardIndex(int cardIndex, int pileSize) {
+    if (cardIndex >= pileSize || cardIndex < 0) {
       throw new IllegalArgumentException("Card index is invalid");
     }
-    return pile.get(cardIndex);
   }
 
   /**
-   * Gets the last card in the pile if index is correct, deletes the card form the pile as well.
+   * Gets the last card in the pile if index is correct.
    *
    * @param pileNumber is the index of the pile from where the card comes from.
    * @param cardIndex  is the index of the card within the pile.
    * @param type       is the pile type of the pile.
-   * @return the card that is going to be moved.
-   * @throws IllegalArgumentException is index is not the last card in the given pile.
+   * @return the index of the card that is going to be moved, or {@link ArrayPileStorage#EMPTY}
+   *         if the index is not the last card in the given pile.
    */
-  private Card checkSourceCardIndex(int pileNumber, int cardIndex, PileType type) {
+  private int checkSourceCardIndex(int pileNumber, int cardIndex, PileType type) {
+    int pileSize;
+    int card;
     if (type == PileType.CASCADE) {
-      return getLastCardFromPile(cardIndex, this.cascadePile.get(pileNumber));
+      pileSize = this.piles.getNumCardsInCascade(pileNumber);
+      card = this.piles.getCascadeTop(pileNumber);
+    }
+    else {
+      card = this.piles.getOpenCard(pileNumber);
+      pileSize = card == ArrayPileStorage.EMPTY ? 0 : 1;
+    }
+    if (pileSize == 0 || cardIndex != pileSize - 1) {
+      return ArrayPileStorage.EMPTY;
+    }
+    return card;
+  }
+
+  /**
+   * Adds every legal move out of a non-empty pile to the buffer. Only the last card of a pile can
+   * be moved, and it can't be moved to an empty cascade pile.
+   *
+   * @param source     is the type of the source pile (open or cascade).
+   * @param pileNumber is the index of the source pile.
+   * @param moves      is the buffer the moves are added to.
+   */
+  protected void addLegalMovesFrom(PileType source, int pileNumber, MoveBuffer moves) {
+    int cardIndex;
+    int card;
+    if (source == PileType.CASCADE) {
+      cardIndex = this.piles.getNumCardsInCascade(pileNumber) - 1;
+      card = this.piles.getCascadeTop(pileNumber);
     }
     else {
-      return getLastCardFromPile(cardIndex, this.openPile.get(pileNumber));
+      cardIndex = 0;
+      card = this.piles.getOpenCard(pileNumber);
+    }
+    this.addFoundationMoves(source, pileNumber, cardIndex, card, moves);
+    this.addOpenMoves(source, pileNumber, cardIndex, moves);
+    for (int i = 0; i < this.piles.getNumCascades(); i++) {
+      int top = this.piles.getCascadeTop(i);
+      if (top != ArrayPileStorage.EMPTY && Card.canStackOn(card, top)) {
+        moves.add(source, pileNumber, cardIndex, PileType.CASCADE, i);
+      }
     }
   }
 
   /**
-   * Gets the last card from the given pile.
+   * Adds the moves of a single card to every foundation pile that can take it.
    *
-   * @param cardIndex is the index of the card being taken.
-   * @param pile is the pile from where the card is being taken.
-   * @return the card being taken.
-   * @throws IllegalArgumentException if the card being taken is not the last one in the pile.
+   * @param source     is the type of the source pile.
+   * @param pileNumber is the index of the source pile.
+   * @param cardIndex  is the index of the card in the source pile.
+   * @param card       is the index of the card being moved.
+   * @param moves      is the buffer the moves are added to.
    */
-  private Card getLastCardFromPile(int cardIndex, List<Card> pile) {
-    if (cardIndex == pile.size() - 1) {
-      return pile.get(cardIndex);
+  protected void addFoundationMoves(PileType source, int pileNumber, int cardIndex, int card,
+                                    MoveBuffer moves) {
+    for (int i = 0; i < ArrayPileStorage.NUM_FOUNDATIONS; i++) {
+      int top = this.piles.getFoundationTop(i);
+      if (top == ArrayPileStorage.EMPTY ? card % 13 == 0 : Card.canFollowOnFoundation(card, top)) {
+        moves.add(source, pileNumber, cardIndex, PileType.FOUNDATION, i);
+      }
     }
-    throw new IllegalArgumentException("Card being moved should be the last card in the pile");
   }
 
   /**
-   * Removes the card from the given source pile.
+   * Adds the moves of a single card to every empty open pile.
    *
-   * @param pileNumber is the index of the pile in the group of piles.
-   * @param cardIndex is the index of the crad in the pile.
-   * @param type is the Pile type of the group of piles.
+   * @param source     is the type of the source pile.
+   * @param pileNumber is the index of the source pile.
+   * @param cardIndex  is the index of the card in the source pile.
+   * @param moves      is the buffer the moves are added to.
    */
-  protected void removeMovingCard(int pileNumber, int cardIndex, PileType type) {
-    if (type == PileType.CASCADE) {
-      List<Card> cPile = this.cascadePile.get(pileNumber);
-      cPile.remove(cardIndex);
+  protected void addOpenMoves(PileType source, int pileNumber, int cardIndex, MoveBuffer moves) {
+    for (int i = 0; i < this.piles.getNumOpens(); i++) {
+      if (this.piles.getOpenCard(i) == ArrayPileStorage.EMPTY) {
+        moves.add(source, pileNumber, cardIndex, PileType.OPEN, i);
+      }
+    }
+  }
+
+  /**
+   * Makes a move that was already checked against the rules of the game and records it so it can
+   * be undone.
+   *
+   * @param source         is the type of the source pile.
+   * @param pileNumber     is the index of the source pile.
+   * @param count          is the number of cards at the end of the source pile being moved.
+   * @param destination    is the type of the destination pile.
+   * @param destPileNumber is the index of the destination pile.
+   */
+  protected void applyMove(PileType source, int pileNumber, int count,
+                           PileType destination, int destPileNumber) {
+    this.transferCards(source, pileNumber, count, destination, destPileNumber);
+    this.journal.record(source, pileNumber, count, destination, destPileNumber);
+  }
+
+  /**
+   * Moves the last cards of a pile to the end of another pile without checking any rule. Only
+   * cascade piles can give or receive more than one card at a time.
+   *
+   * @param source         is the type of the source pile.
+   * @param pileNumber     is the index of the source pile.
+   * @param count          is the number of cards being moved.
+   * @param destination    is the type of the destination pile.
+   * @param destPileNumber is the index of the destination pile.
+   */
+  private void transferCards(PileType source, int pileNumber, int count,
+                             PileType destination, int destPileNumber) {
+    if (source == PileType.CASCADE && destination == PileType.CASCADE) {
+      this.piles.moveCascadeCards(pileNumber,
+              this.piles.getNumCardsInCascade(pileNumber) - count, destPileNumber);
     }
     else {
-      List<Card> oPile = this.openPile.get(pileNumber);
-      oPile.remove(cardIndex);
+      int card;
+      switch (source) {
+        case CASCADE:
+          card = this.piles.removeFromCascade(pileNumber);
+          break;
+        case OPEN:
+          card = this.piles.removeFromOpen(pileNumber);
+          break;
+        default:
+          card = this.piles.removeFromFoundation(pileNumber);
+          break;
+      }
+      switch (destination) {
+        case CASCADE:
+          this.piles.addToCascade(destPileNumber, card);
+          break;
+        case OPEN:
+          this.piles.addToOpen(destPileNumber, card);
+          break;
+        default:
+          this.piles.addToFoundation(destPileNumber, card);
+          break;
+      }
+    }
+    this.notifyMoved(source, pileNumber, count, destination, destPileNumber);
+  }
+
+  /**
+   * Finds the foundation pile a card should be played to automatically. A card is played when it
+   * is safe, meaning that every card of the other color that could be stacked on it in a cascade
+   * pile (the ones with rank one lower) is already in the foundation piles, or when the game is
+   * being finished.
+   *
+   * @param card      is the index of the card, or {@link ArrayPileStorage#EMPTY}.
+   * @param finishing is true if every card can be played, see {@link #cascadesInSequence()}.
+   * @return the index of the foundation pile, or {@link ArrayPileStorage#EMPTY} if the card
+   *         should not or can't be played.
+   */
+  private int autoPlayFoundation(int card, boolean finishing) {
+    if (card == ArrayPileStorage.EMPTY) {
+      return ArrayPileStorage.EMPTY;
+    }
+    int rank = card % 13 + 1;
+    if (!finishing) {
+      boolean red = Card.fromIndex(card).getSuit().isRed();
+      for (Suits suit : DECK_SUIT_ORDER) {
+        if (suit.isRed() != red && this.numCardsInFoundationOfSuit(suit.getIndex()) < rank - 1) {
+          return ArrayPileStorage.EMPTY;
+        }
+      }
+    }
+    for (int i = 0; i < ArrayPileStorage.NUM_FOUNDATIONS; i++) {
+      int top = this.piles.getFoundationTop(i);
+      if (top == ArrayPileStorage.EMPTY ? rank == 1 : Card.canFollowOnFoundation(card, top)) {
+        return i;
+      }
+    }
+    return ArrayPileStorage.EMPTY;
+  }
+
+  /**
+   * Gets the number of cards of a suit in the foundation piles.
+   *
+   * @param suit is the index of the suit.
+   * @return the number of cards of the suit in the foundation piles.
+   */
+  private int numCardsInFoundationOfSuit(int suit) {
+    for (int i = 0; i < ArrayPileStorage.NUM_FOUNDATIONS; i++) {
+      if (this.piles.getFoundationSuit(i) == suit) {
+        return this.piles.getNumCardsInFoundation(i);
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Checks if the ranks of every cascade pile go down from its first card to its last. The last
+   * card of every pile is then the lowest card of that pile, so the lowest card left in the game is
+   * always free to be played and the game can be finished by playing to the foundation piles.
+   *
+   * @return true if every cascade pile is in sequence.
+   */
+  private boolean cascadesInSequence() {
+    for (int i = 0; i < this.piles.getNumCascades(); i++) {
+      int size = this.piles.getNumCardsInCascade(i);
+      for (int j = 1; j < size; j++) {
+        if (this.piles.getCascadeCard(i, j) % 13 > this.piles.getCascadeCard(i, j - 1) % 13) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Tells every listener that the board was replaced.
+   */
+  private void notifyStarted() {
+    for (int i = 0; i < this.listeners.size(); i++) {
+      this.listeners.get(i).gameStarted(this.piles.getNumCascades(), this.piles.getNumOpens());
+    }
+  }
+
+  /**
+   * Tells every listener that cards were moved, and that the game is over if the move completed
+   * the foundation piles.
+   */
+  private void notifyMoved(PileType source, int pileNumber, int count,
+                           PileType destination, int destPileNumber) {
+    if (this.listeners.isEmpty()) {
+      return;
+    }
+    int sourceSize = this.pileSize(source, pileNumber);
+    int destSize = this.pileSize(destination, destPileNumber);
+    if (this.holdingEvents) {
+      this.holdEvent(PackedMove.pack(source, pileNumber, count, destination, destPileNumber),
+              sourceSize, destSize);
+      return;
+    }
+    for (int i = 0; i < this.listeners.size(); i++) {
+      this.listeners.get(i).cardsMoved(source, pileNumber, count, destination, destPileNumber,
+              sourceSize, destSize);
+    }
+    if (destination == PileType.FOUNDATION && this.piles.isComplete()) {
+      for (int i = 0; i < this.listeners.size(); i++) {
+        this.listeners.get(i).gameOver();
+      }
+    }
+  }
+
+  /**
+   * Keeps an event of a batch of moves until the batch is made, see {@link #releaseEvents()}.
+   */
+  private void holdEvent(long move, int sourceSize, int destSize) {
+    if (this.heldMoves == null || this.heldEvents == this.heldMoves.length) {
+      int length = this.heldMoves == null ? 16 : this.heldMoves.length * 2;
+      long[] moves = new long[length];
+      int[] sizes = new int[length * 2];
+      if (this.heldMoves != null) {
+        System.arraycopy(this.heldMoves, 0, moves, 0, this.heldEvents);
+        System.arraycopy(this.heldSizes, 0, sizes, 0, this.heldEvents * 2);
+      }
+      this.heldMoves = moves;
+      this.heldSizes = sizes;
+    }
+    this.heldMoves[this.heldEvents] = move;
+    this.heldSizes[this.heldEvents * 2] = sourceSize;
+    this.heldSizes[this.heldEvents * 2 + 1] = destSize;
+    this.heldEvents += 1;
+  }
+
+  /**
+   * Tells every listener about the moves of a batch that was made, in order, and that the game is
+   * over if the last of them completed the foundation piles.
+   */
+  private void releaseEvents() {
+    int count = this.heldEvents;
+    this.heldEvents = 0;
+    for (int e = 0; e < count; e++) {
+      long move = this.heldMoves[e];
+      for (int i = 0; i < this.listeners.size(); i++) {
+        this.listeners.get(i).cardsMoved(PackedMove.source(move), PackedMove.pileNumber(move),
+                PackedMove.amount(move), PackedMove.destination(move),
+                PackedMove.destPileNumber(move), this.heldSizes[e * 2],
+                this.heldSizes[e * 2 + 1]);
+      }
+    }
+    if (count > 0 && PackedMove.destination(this.heldMoves[count - 1]) == PileType.FOUNDATION
+            && this.piles.isComplete()) {
+      for (int i = 0; i < this.listeners.size(); i++) {
+        this.listeners.get(i).gameOver();
+      }
+    }
+  }
+
+  /**
+   * Gets the number of cards in a pile of any type.
+   */
+  private int pileSize(PileType type, int pile) {
+    switch (type) {
+      case CASCADE:
+        return this.piles.getNumCardsInCascade(pile);
+      case OPEN:
+        return this.piles.getOpenCard(pile) == ArrayPileStorage.EMPTY ? 0 : 1;
+      default:
+        return this.piles.getNumCardsInFoundation(pile);
+    }
+  }
+
+  /**
+   * To represent a read-only view of a cascade or foundation pile that reads the cards straight
+   * from the storage of the game.
+   */
+  private final class PileView extends AbstractList<Card> {
+    private final PileType type;
+    private final int pile;
+
+    /**
+     * Makes a view of a pile.
+     *
+     * @param type is the type of the pile, either cascade or foundation.
+     * @param pile is the index of the pile.
+     */
+    PileView(PileType type, int pile) {
+      this.type = type;
+      this.pile = pile;
+    }
+
+    @Override
+    public Card get(int index) {
+      if (index < 0 || index >= this.size()) {
+        throw new IndexOutOfBoundsException("Card index is invalid");
+      }
+      if (this.type == PileType.CASCADE) {
+        return Card.fromIndex(piles.getCascadeCard(this.pile, index));
+      }
+      return Card.fromIndex(piles.getFoundationSuit(this.pile) * 13 + index);
+    }
+
+    @Override
+    public int size() {
+      if (!gameActive || this.pile >= numPiles(this.type)) {
+        return 0;
+      }
+      return pileSize(this.type, this.pile);
     }
   }
 }
@@ -4,16 +4,36 @@ package cs3500.freecell.model;
  * Represents the suit and rank of a poker card.
  */
 public enum Suits {
-  HEART("♥"), DIAMOND("♦"), CLUBS("♣"), SPADES("♠");
+  HEART("♥", true), DIAMOND("♦", true), CLUBS("♣", false), SPADES("♠", false);
 
   private final String suit;
+  private final boolean red;
 
-  Suits(String suit) {
+  Suits(String suit, boolean red) {
     this.suit = suit;
+    this.red = red;
   }
 
   @Override
   public String toString() {
     return this.suit;
   }
+
+  /**
+   * Checks if the suit is one of the red suits (hearts or diamonds).
+   *
+   * @return true if the suit is red, false if it is black.
+   */
+  public boolean isRed() {
+    return this.red;
+  }
+
+  /**
+   * Gets the compact index of the suit, used to encode cards as integers.
+   *
+   * @return index of the suit between 0 and 3.
+   */
+  public int getIndex() {
+    return this.ordinal();
+  }
 }
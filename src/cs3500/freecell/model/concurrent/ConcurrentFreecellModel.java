@@ -0,0 +1,413 @@
+package cs3500.freecell.model.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.FreecellModel;
+import cs3500.freecell.model.FreecellModelListener;
+import cs3500.freecell.model.FreecellModelState;
+import cs3500.freecell.model.FreecellPosition;
+import cs3500.freecell.model.MoveBuffer;
+import cs3500.freecell.model.MoveResult;
+import cs3500.freecell.model.PileType;
+import cs3500.freecell.model.SimpleFreecellModel;
+
+/**
+ * To represent a game of freecell that can be shared between one thread making moves and any
+ * number of threads reading the board. Every change to the game is made by the wrapped game while
+ * holding the write lock of a {@link StampedLock}. Reads are optimistic: they run without a lock
+ * and are only repeated under the read lock if a move was made while they ran, so readers never
+ * block the writer and a read that does not overlap a move costs no locking at all.
+ *
+ * <p>A single getter always returns a value from one consistent position. To read several values
+ * from the same position, for example to render the whole board, use {@link #read(Function)}.
+ */
+public class ConcurrentFreecellModel implements FreecellModel<Card> {
+  private final SimpleFreecellModel game;
+  private final StampedLock lock;
+  private final FreecellModelState<Card> view;
+
+  /**
+   * Makes a thread safe game that follows the rules of the given game. The given game must not be
+   * used directly after this.
+   *
+   * @param game is the game being wrapped.
+   * @throws IllegalArgumentException if the game is null.
+   */
+  public ConcurrentFreecellModel(SimpleFreecellModel game) {
+    if (game == null) {
+      throw new IllegalArgumentException("Game can't be null.");
+    }
+    this.game = game;
+    this.lock = new StampedLock();
+    this.view = new StateView();
+  }
+
+  /**
+   * Reads several values of the game from one consistent position. The reader may be run more than
+   * once if a move is made while it runs, so it must only read the state it is given and must not
+   * keep references to it.
+   *
+   * @param reader is the function reading the state of the game.
+   * @param <R>    is the type of the value read.
+   * @return the value returned by the reader for a position that was not changed while it ran.
+   * @throws IllegalArgumentException if the reader is null.
+   */
+  public <R> R read(Function<FreecellModelState<Card>, R> reader) {
+    if (reader == null) {
+      throw new IllegalArgumentException("Reader can't be null.");
+    }
+    return this.readConsistent(() -> reader.apply(this.view));
+  }
+
+  /**
+   * Gets an immutable snapshot of the piles of the game.
+   *
+   * @return the current position of the game.
+   * @throws IllegalStateException if the game has not started.
+   */
+  public FreecellPosition getPosition() {
+    return this.readConsistent(this.game::getPosition);
+  }
+
+  /**
+   * Makes a copy of the wrapped game that is not shared with other threads, see
+   * {@link SimpleFreecellModel#fork()}. The copy follows the same rules and can be played or
+   * searched without any locking, for example by a solver. Forking marks the piles of the wrapped
+   * game as shared, so it takes the write lock.
+   *
+   * @return the copy of the game.
+   */
+  public SimpleFreecellModel fork() {
+    long stamp = this.lock.writeLock();
+    try {
+      return this.game.fork();
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public List<Card> getDeck() {
+    return this.game.getDeck();
+  }
+
+  @Override
+  public void startGame(List<Card> deck, int numCascadePiles, int numOpenPiles, boolean shuffle) {
+    long stamp = this.lock.writeLock();
+    try {
+      this.game.startGame(deck, numCascadePiles, numOpenPiles, shuffle);
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void reset() {
+    long stamp = this.lock.writeLock();
+    try {
+      this.game.reset();
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void restartDeal() {
+    long stamp = this.lock.writeLock();
+    try {
+      this.game.restartDeal();
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * {@inheritDoc} Listeners are called while the game is locked for writing, so they must not
+   * make moves of their own and should return quickly.
+   */
+  @Override
+  public void addListener(FreecellModelListener listener) {
+    long stamp = this.lock.writeLock();
+    try {
+      this.game.addListener(listener);
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void removeListener(FreecellModelListener listener) {
+    long stamp = this.lock.writeLock();
+    try {
+      this.game.removeListener(listener);
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void move(PileType source, int pileNumber, int cardIndex,
+                   PileType destination, int destPileNumber) {
+    long stamp = this.lock.writeLock();
+    try {
+      this.game.move(source, pileNumber, cardIndex, destination, destPileNumber);
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public MoveResult tryMove(PileType source, int pileNumber, int cardIndex,
+                            PileType destination, int destPileNumber) {
+    long stamp = this.lock.writeLock();
+    try {
+      return this.game.tryMove(source, pileNumber, cardIndex, destination, destPileNumber);
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public int applyMoves(MoveBuffer moves) {
+    long stamp = this.lock.writeLock();
+    try {
+      return this.game.applyMoves(moves);
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public int autoPlay() {
+    long stamp = this.lock.writeLock();
+    try {
+      return this.game.autoPlay();
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * {@inheritDoc} The buffer is filled under the read lock rather than optimistically, so it is
+   * never seen half filled by a read that has to be repeated.
+   */
+  @Override
+  public int getLegalMoves(MoveBuffer moves) {
+    long stamp = this.lock.readLock();
+    try {
+      return this.game.getLegalMoves(moves);
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public void undo() {
+    long stamp = this.lock.writeLock();
+    try {
+      this.game.undo();
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void redo() {
+    long stamp = this.lock.writeLock();
+    try {
+      this.game.redo();
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return this.readConsistent(this.game::isGameOver);
+  }
+
+  @Override
+  public int getNumCardsInFoundationPile(int index) {
+    return this.readConsistent(() -> this.game.getNumCardsInFoundationPile(index));
+  }
+
+  @Override
+  public int getNumCascadePiles() {
+    return this.readConsistent(this.game::getNumCascadePiles);
+  }
+
+  @Override
+  public int getNumCardsInCascadePile(int index) {
+    return this.readConsistent(() -> this.game.getNumCardsInCascadePile(index));
+  }
+
+  @Override
+  public int getNumCardsInOpenPile(int index) {
+    return this.readConsistent(() -> this.game.getNumCardsInOpenPile(index));
+  }
+
+  @Override
+  public int getNumOpenPiles() {
+    return this.readConsistent(this.game::getNumOpenPiles);
+  }
+
+  @Override
+  public Card getFoundationCardAt(int pileIndex, int cardIndex) {
+    return this.readConsistent(() -> this.game.getFoundationCardAt(pileIndex, cardIndex));
+  }
+
+  @Override
+  public Card getCascadeCardAt(int pileIndex, int cardIndex) {
+    return this.readConsistent(() -> this.game.getCascadeCardAt(pileIndex, cardIndex));
+  }
+
+  @Override
+  public Card getOpenCardAt(int pileIndex) {
+    return this.readConsistent(() -> this.game.getOpenCardAt(pileIndex));
+  }
+
+  @Override
+  public int copyCascadePile(int pileIndex, Card[] cards) {
+    return this.readConsistent(() -> this.game.copyCascadePile(pileIndex, cards));
+  }
+
+  @Override
+  public int copyFoundationPile(int pileIndex, Card[] cards) {
+    return this.readConsistent(() -> this.game.copyFoundationPile(pileIndex, cards));
+  }
+
+  /**
+   * {@inheritDoc} Unlike the wrapped game, the list is a copy of the pile, since a live view could
+   * not be read consistently while another thread makes moves.
+   */
+  @Override
+  public List<Card> getCascadePile(int pileIndex) {
+    return this.readConsistent(() -> Collections.unmodifiableList(
+            new ArrayList<>(this.game.getCascadePile(pileIndex))));
+  }
+
+  /**
+   * {@inheritDoc} Unlike the wrapped game, the list is a copy of the pile, since a live view could
+   * not be read consistently while another thread makes moves.
+   */
+  @Override
+  public List<Card> getFoundationPile(int pileIndex) {
+    return this.readConsistent(() -> Collections.unmodifiableList(
+            new ArrayList<>(this.game.getFoundationPile(pileIndex))));
+  }
+
+  @Override
+  public long getPositionHash() {
+    return this.readConsistent(this.game::getPositionHash);
+  }
+
+  /**
+   * Runs a read of the game optimistically, repeating it under the read lock if a move was made
+   * while it ran. An exception thrown by a read that overlapped a move is ignored, since it may
+   * have been caused by seeing the piles halfway through the move. Every getter reads through
+   * this method, booleans and numbers included.
+   *
+   * @param read is the read being made.
+   * @param <R>  is the type of the value read.
+   * @return the value read from a consistent position.
+   */
+  private <R> R readConsistent(Supplier<R> read) {
+    long stamp = this.lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        R result = read.get();
+        if (this.lock.validate(stamp)) {
+          return result;
+        }
+      } catch (RuntimeException e) {
+        if (this.lock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    stamp = this.lock.readLock();
+    try {
+      return read.get();
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * To represent a read-only view of the wrapped game, given to the readers of
+   * {@link #read(Function)} so they can't change the game without holding the lock.
+   */
+  private final class StateView implements FreecellModelState<Card> {
+
+    @Override
+    public int getNumCardsInFoundationPile(int index) {
+      return ConcurrentFreecellModel.this.game.getNumCardsInFoundationPile(index);
+    }
+
+    @Override
+    public int getNumCascadePiles() {
+      return ConcurrentFreecellModel.this.game.getNumCascadePiles();
+    }
+
+    @Override
+    public int getNumCardsInCascadePile(int index) {
+      return ConcurrentFreecellModel.this.game.getNumCardsInCascadePile(index);
+    }
+
+    @Override
+    public int getNumCardsInOpenPile(int index) {
+      return ConcurrentFreecellModel.this.game.getNumCardsInOpenPile(index);
+    }
+
+    @Override
+    public int getNumOpenPiles() {
+      return ConcurrentFreecellModel.this.game.getNumOpenPiles();
+    }
+
+    @Override
+    public Card getFoundationCardAt(int pileIndex, int cardIndex) {
+      return ConcurrentFreecellModel.this.game.getFoundationCardAt(pileIndex, cardIndex);
+    }
+
+    @Override
+    public Card getCascadeCardAt(int pileIndex, int cardIndex) {
+      return ConcurrentFreecellModel.this.game.getCascadeCardAt(pileIndex, cardIndex);
+    }
+
+    @Override
+    public Card getOpenCardAt(int pileIndex) {
+      return ConcurrentFreecellModel.this.game.getOpenCardAt(pileIndex);
+    }
+
+    @Override
+    public int copyCascadePile(int pileIndex, Card[] cards) {
+      return ConcurrentFreecellModel.this.game.copyCascadePile(pileIndex, cards);
+    }
+
+    @Override
+    public int copyFoundationPile(int pileIndex, Card[] cards) {
+      return ConcurrentFreecellModel.this.game.copyFoundationPile(pileIndex, cards);
+    }
+
+    @Override
+    public List<Card> getCascadePile(int pileIndex) {
+      return ConcurrentFreecellModel.this.game.getCascadePile(pileIndex);
+    }
+
+    @Override
+    public List<Card> getFoundationPile(int pileIndex) {
+      return ConcurrentFreecellModel.this.game.getFoundationPile(pileIndex);
+    }
+
+    @Override
+    public long getPositionHash() {
+      return ConcurrentFreecellModel.this.game.getPositionHash();
+    }
+  }
+}
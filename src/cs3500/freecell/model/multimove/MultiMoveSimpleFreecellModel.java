@@ -1,11 +1,9 @@
 package cs3500.freecell.model.multimove;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.function.BiFunction;
-
+import cs3500.freecell.model.ArrayPileStorage;
 import cs3500.freecell.model.Card;
+import cs3500.freecell.model.MoveBuffer;
+import cs3500.freecell.model.MoveResult;
 import cs3500.freecell.model.PileType;
 import cs3500.freecell.model.SimpleFreecellModel;
 
@@ -21,145 +19,292 @@ public class MultiMoveSimpleFreecellModel extends SimpleFreecellModel {
     super();
   }
 
+  /**
+   * Makes a fork of the given game, see {@link #fork()}.
+   *
+   * @param parent is the game being forked.
+   */
+  protected MultiMoveSimpleFreecellModel(MultiMoveSimpleFreecellModel parent) {
+    super(parent);
+  }
+
   @Override
-  public void move(PileType source, int pileNumber, int cardIndex,
-                   PileType destination, int destPileNumber) {
+  public MultiMoveSimpleFreecellModel fork() {
+    return new MultiMoveSimpleFreecellModel(this);
+  }
 
-    // making a map with the functions that add to each different pileType
-    HashMap<PileType, BiFunction<List<Card>, Integer, Void>> addTo = new HashMap<>(3);
-    addTo.put(PileType.OPEN, this::move2open);
-    addTo.put(PileType.FOUNDATION, this::move2foundation);
-    addTo.put(PileType.CASCADE, this::move2cascade);
+  @Override
+  protected MoveResult checkMove(PileType source, int pileNumber, int cardIndex,
+                                 PileType destination, int destPileNumber) {
+    MoveResult result = this.checkValidMoveConditions(source, pileNumber, destination,
+            destPileNumber);
+    if (!result.isSuccess()) {
+      return result;
+    }
 
-    this.checkValidMoveConditions(source);
-    List<Card> cardsBeingMoved = getCard(source, pileNumber, cardIndex);
+    int numCardsBeingMoved = getNumCardsBeingMoved(source, pileNumber, cardIndex);
+    if (numCardsBeingMoved == 0) {
+      return MoveResult.INVALID_CARD_INDEX;
+    }
+    if (numCardsBeingMoved < 0) {
+      return MoveResult.INVALID_BUILD;
+    }
 
-    if (cardsBeingMoved.size() > 1 && (destination == PileType.FOUNDATION
+    if (numCardsBeingMoved > 1 && (destination == PileType.FOUNDATION
             || destination == PileType.OPEN)) {
-      throw new IllegalArgumentException("Can't add a build into non-cascade pile !");
+      return MoveResult.BUILD_INTO_NON_CASCADE;
     }
 
-    addTo.get(destination).apply(cardsBeingMoved, destPileNumber);
+    int topMostCard = source == PileType.OPEN ? piles.getOpenCard(pileNumber)
+            : piles.getCascadeCard(pileNumber, cardIndex);
 
-    removeBuild(cardIndex, pileNumber, source);
+    switch (destination) {
+      case CASCADE:
+        return move2cascade(topMostCard, numCardsBeingMoved, destPileNumber);
+      case OPEN:
+        return this.checkAdd2OpenPile(destPileNumber);
+      default:
+        return this.checkAdd2FoundationPile(topMostCard, destPileNumber);
+    }
   }
 
   /**
-   * Adds the given set of cards to an open pile.
+   * Expands a move into the sequence of single card moves that makes the same change to the game.
+   * A build is moved the way a player would move it by hand: cards are parked in the empty open
+   * piles, and when those are not enough, part of the build is first moved to an empty cascade
+   * pile so the open piles can be used again. Each step is a legal move of this game when the
+   * steps are made in order, and the number of steps is found without searching, so the time
+   * taken is linear in the number of steps. The game itself is not changed.
    *
-   * @param cards is the set/build of cards being added to the pile.
-   * @param pileIdx index of the pile we are moving cards into.
-   * @return null since we are mutating the model.
+   * @param source         is the type of the source pile.
+   * @param pileNumber     is the index of the source pile.
+   * @param cardIndex      is the index of the first card being moved in the source pile.
+   * @param destination    is the type of the destination pile.
+   * @param destPileNumber is the index of the destination pile.
+   * @param steps          is the buffer filled with the single card moves, replacing its contents.
+   * @return the number of single card moves.
+   * @throws IllegalArgumentException if the buffer is null, if the move is not legal, or if the
+   *                                  build only fits by counting an empty destination pile as
+   *                                  free space, which single card moves can't do.
+   * @throws IllegalStateException    if the game has not started.
    */
-  private Void move2open(List<Card> cards, Integer pileIdx) {
-    if (cards.get(0) == null) {
-      throw new IllegalArgumentException("Invalid move, no card at the given pile index");
+  public int expandMove(PileType source, int pileNumber, int cardIndex,
+                        PileType destination, int destPileNumber, MoveBuffer steps) {
+    if (steps == null) {
+      throw new IllegalArgumentException("Move buffer can't be null.");
+    }
+    MoveResult result = this.checkMove(source, pileNumber, cardIndex, destination,
+            destPileNumber);
+    if (result == MoveResult.GAME_NOT_STARTED) {
+      throw new IllegalStateException(result.getMessage());
+    }
+    if (!result.isSuccess()) {
+      throw new IllegalArgumentException(result.getMessage());
+    }
+
+    steps.clear();
+    int numCards = source == PileType.OPEN ? 1
+            : piles.getNumCardsInCascade(pileNumber) - cardIndex;
+    if (numCards == 1) {
+      steps.add(source, pileNumber, cardIndex, destination, destPileNumber);
+      return 1;
     }
-    this.add2OpenPile(cards.get(0), openPile.get(pileIdx));
-    return null;
+
+    int[] freeOpens = new int[piles.getNumEmptyOpens()];
+    int numFreeOpens = 0;
+    for (int i = 0; i < piles.getNumOpens(); i++) {
+      if (piles.getOpenCard(i) == ArrayPileStorage.EMPTY) {
+        freeOpens[numFreeOpens] = i;
+        numFreeOpens += 1;
+      }
+    }
+    int[] freeCascades = new int[piles.getNumEmptyCascades()];
+    int numFreeCascades = 0;
+    int[] sizes = new int[piles.getNumCascades()];
+    for (int i = 0; i < sizes.length; i++) {
+      sizes[i] = piles.getNumCardsInCascade(i);
+      if (sizes[i] == 0 && i != destPileNumber) {
+        freeCascades[numFreeCascades] = i;
+        numFreeCascades += 1;
+      }
+    }
+    if (numCards > buildCapacity(numFreeOpens, numFreeCascades)) {
+      throw new IllegalArgumentException(MoveResult.BUILD_TOO_LARGE.getMessage());
+    }
+
+    planBuildMove(pileNumber, destPileNumber, numCards, freeOpens, numFreeOpens, freeCascades,
+            numFreeCascades, sizes, steps);
+    return steps.size();
   }
 
   /**
-   * Adds the given set of cards to an open pile.
+   * Gets the number of cards at the end of a cascade pile that can be moved together right now:
+   * the length of the build at the end of the pile, limited by the number of empty open and
+   * cascade piles.
    *
-   * @param cards is the set/build of cards being added to the pile.
-   * @param pileIdx index of the pile we are moving cards into.
-   * @return null since we are mutating the model.
+   * @param pileNumber is the index of the cascade pile.
+   * @return the largest number of cards that can be moved out of the pile at once.
+   * @throws IllegalArgumentException if the pile index is invalid.
+   * @throws IllegalStateException    if the game has not started.
    */
-  private Void move2foundation(List<Card> cards, Integer pileIdx) {
-    this.add2FoundationPile(cards.get(0), foundationPile.get(pileIdx));
-    return null;
+  public int getMovableBuildSize(int pileNumber) {
+    // checks that the game has started and that the pile exists.
+    this.getNumCardsInCascadePile(pileNumber);
+    return Math.min(piles.getCascadeRunLength(pileNumber), maxBuildSize());
   }
 
-  // needs implementation
-  private Void move2cascade(List<Card> cards, Integer pileIdx) {
-    int numOpenEmpty = numEmptyPiles(openPile);
-    int numCascadeEmpty = numEmptyPiles(cascadePile);
-    double maxCardsForMove = (numOpenEmpty + 1) * Math.pow(2, numCascadeEmpty);
-    int targetPileLastIndex = getNumCardsInCascadePile(pileIdx);
+  @Override
+  protected void addLegalMovesFrom(PileType source, int pileNumber, MoveBuffer moves) {
+    int pileSize = source == PileType.OPEN ? 1 : piles.getNumCardsInCascade(pileNumber);
+    int firstCardIndex = source == PileType.OPEN ? 0
+            : pileSize - piles.getCascadeRunLength(pileNumber);
+    int maxCardsForMove = maxBuildSize();
 
-    if (targetPileLastIndex == 0 && cards.size() <= maxCardsForMove) {
-      cascadePile.get(pileIdx).addAll(cards);
-      return null;
+    for (int cardIndex = pileSize - 1; cardIndex >= firstCardIndex; cardIndex--) {
+      int numCards = pileSize - cardIndex;
+      if (numCards > maxCardsForMove) {
+        return;
+      }
+      int card = source == PileType.OPEN ? piles.getOpenCard(pileNumber)
+              : piles.getCascadeCard(pileNumber, cardIndex);
+      if (numCards == 1) {
+        this.addFoundationMoves(source, pileNumber, cardIndex, card, moves);
+        this.addOpenMoves(source, pileNumber, cardIndex, moves);
+      }
+      for (int i = 0; i < piles.getNumCascades(); i++) {
+        int top = piles.getCascadeTop(i);
+        if ((source == PileType.OPEN || i != pileNumber)
+                && (top == ArrayPileStorage.EMPTY || Card.canStackOn(card, top))) {
+          moves.add(source, pileNumber, cardIndex, PileType.CASCADE, i);
+        }
+      }
     }
+  }
 
-    Card topMostCard = cards.get(0);
-    Card lastCardInTargetPile = getCascadeCardAt(pileIdx, targetPileLastIndex - 1);
-    if (cards.size() > maxCardsForMove
-            || !topMostCard.correctOrder(lastCardInTargetPile)) {
-      throw new IllegalArgumentException("Invalid move. Invalid build.");
-    }
+  /**
+   * Checks that a build can be added to a cascade pile.
+   *
+   * @param topMostCard is the index of the first card of the build.
+   * @param numCards is the number of cards in the build.
+   * @param pileIdx index of the pile we are moving cards into.
+   * @return {@link MoveResult#BUILD_TOO_LARGE} if there are not enough empty piles to move the
+   *         build, {@link MoveResult#INVALID_CASCADE_ORDER} if it is in the wrong order, otherwise
+   *         {@link MoveResult#SUCCESS}.
+   */
+  private MoveResult move2cascade(int topMostCard, int numCards, int pileIdx) {
+    int lastCardInTargetPile = piles.getCascadeTop(pileIdx);
 
-    cascadePile.get(pileIdx).addAll(cards);
-    return null;
+    if (numCards > maxBuildSize()) {
+      return MoveResult.BUILD_TOO_LARGE;
+    }
+    if (lastCardInTargetPile != ArrayPileStorage.EMPTY
+            && !Card.canStackOn(topMostCard, lastCardInTargetPile)) {
+      return MoveResult.INVALID_CASCADE_ORDER;
+    }
+    return MoveResult.SUCCESS;
   }
 
   /**
-   * Checks if the cards are a valid build.
+   * Adds the single card moves that move the last cards of one cascade pile to another. The
+   * cards go through the open piles directly if there are enough of them, otherwise the top part
+   * of the build is first moved to the last free cascade pile, the rest is moved to the
+   * destination, and then the top part is moved on top of it.
    *
-   * @param cardIdx is the index of the topmost card in the pile (closer to index 0 is topmost)
-   * @param pileIdx is the pile where the build is located at.
+   * @param from        is the index of the source cascade pile.
+   * @param to          is the index of the destination cascade pile.
+   * @param numCards    is the number of cards being moved.
+   * @param opens       is the indices of the empty open piles.
+   * @param numOpens    is the number of empty open piles that can be used.
+   * @param cascades    is the indices of the empty cascade piles.
+   * @param numCascades is the number of empty cascade piles that can be used.
+   * @param sizes       is the number of cards in every cascade pile, updated as cards move.
+   * @param steps       is the buffer the moves are added to.
    */
-  private void isValidBuild(int cardIdx, int pileIdx) {
-    int cascadePileSize = this.getNumCardsInCascadePile(pileIdx);
-
-    // skips the last card in the pile because we don't need to check that card.
-    for (int i = cardIdx; i < cascadePileSize - 1; i++) {
-      Card cardAbove = this.getCascadeCardAt(pileIdx, i);
-      Card cardBelow = this.getCascadeCardAt(pileIdx, i + 1);
-      if (cardAbove.compareRank(cardBelow) != 1 || cardAbove.sameColor(cardBelow)) {
-        throw new IllegalArgumentException("Invalid build");
+  private static void planBuildMove(int from, int to, int numCards, int[] opens, int numOpens,
+                                    int[] cascades, int numCascades, int[] sizes,
+                                    MoveBuffer steps) {
+    if (numCards <= numOpens + 1) {
+      for (int i = 0; i < numCards - 1; i++) {
+        sizes[from] -= 1;
+        steps.add(PileType.CASCADE, from, sizes[from], PileType.OPEN, opens[i]);
       }
+      sizes[from] -= 1;
+      steps.add(PileType.CASCADE, from, sizes[from], PileType.CASCADE, to);
+      sizes[to] += 1;
+      for (int i = numCards - 2; i >= 0; i--) {
+        steps.add(PileType.OPEN, opens[i], 0, PileType.CASCADE, to);
+        sizes[to] += 1;
+      }
+      return;
     }
+
+    int parkedCards = buildCapacity(numOpens, numCascades - 1);
+    if (numCards <= parkedCards) {
+      planBuildMove(from, to, numCards, opens, numOpens, cascades, numCascades - 1, sizes, steps);
+      return;
+    }
+    int parking = cascades[numCascades - 1];
+    planBuildMove(from, parking, parkedCards, opens, numOpens, cascades, numCascades - 1, sizes,
+            steps);
+    planBuildMove(from, to, numCards - parkedCards, opens, numOpens, cascades, numCascades - 1,
+            sizes, steps);
+    planBuildMove(parking, to, parkedCards, opens, numOpens, cascades, numCascades - 1, sizes,
+            steps);
+  }
+
+  /**
+   * Gets the largest number of cards that can be moved through the given number of empty piles.
+   */
+  private static int buildCapacity(int numOpens, int numCascades) {
+    // a deck never has more than 52 cards, so doubling more than 6 times changes nothing.
+    return (numOpens + 1) << Math.min(numCascades, 6);
   }
 
   /**
-   * Gets the card from the specified.
+   * Gets the largest number of cards that can be moved at once, which depends on the number of
+   * empty open and cascade piles.
    *
-   * @param source the pile type of the pile we are moving a card from.
-   * @param pileNumber is the index of the pile within the group of piles.
-   * @param cardIndex is the index of the rad inside the pile.
-   * @return card at the specified index.
+   * @return the maximum size of a build that can be moved.
    */
-  private List<Card> getCard(PileType source, int pileNumber, int cardIndex) {
-    List<Card> cards = new ArrayList<>();
-    if (source == PileType.OPEN) {
-      cards.add(this.getOpenCardAt(pileNumber));
-    } else {
-      isValidBuild(cardIndex, pileNumber);
-      int cascadePileSize = this.getNumCardsInCascadePile(pileNumber);
-      for (int i = cardIndex; i < cascadePileSize; i++) {
-        cards.add(this.getCascadeCardAt(pileNumber, i));
-      }
-    }
-    return cards;
+  private int maxBuildSize() {
+    return buildCapacity(piles.getNumEmptyOpens(), piles.getNumEmptyCascades());
   }
 
   /**
-   * Gets the number of empty open piles.
+   * Checks if the cards are a valid build.
+   *
+   * @param cardIdx is the index of the topmost card in the pile (closer to index 0 is topmost)
+   * @param pileIdx is the pile where the build is located at.
+   * @return true if every card from the index to the end of the pile can stack on the one above.
    */
-  private int numEmptyPiles(List<List<Card>> pileGroup) {
-    int count = 0;
-    for (List<Card> pile : pileGroup) {
-      if (pile.size() == 0) {
-        count += 1;
-      }
-    }
-    return count;
+  private boolean isValidBuild(int cardIdx, int pileIdx) {
+    return piles.getNumCardsInCascade(pileIdx) - cardIdx <= piles.getCascadeRunLength(pileIdx);
   }
 
   /**
-   * Removes the cards from the source after a move is completed.
+   * Gets the number of cards being moved from the specified pile, checking that they can be moved
+   * together.
+   *
+   * @param source the pile type of the pile we are moving a card from.
+   * @param pileNumber is the index of the pile within the group of piles.
+   * @param cardIndex is the index of the rad inside the pile.
+   * @return number of cards from the card index to the end of the pile, 0 if there is no card at
+   *         the index or -1 if the cards are not a valid build.
    */
-  private void removeBuild(int cardIdx, int pileIdx, PileType source) {
+  private int getNumCardsBeingMoved(PileType source, int pileNumber, int cardIndex) {
     if (source == PileType.OPEN) {
-      removeMovingCard(pileIdx, cardIdx, PileType.OPEN);
-    }
-    else {
-      int sizeOfPile = cascadePile.get(pileIdx).size();
-      for (int i = cardIdx; i < sizeOfPile; i++) {
-        removeMovingCard(pileIdx, cardIdx, PileType.CASCADE);
+      if (piles.getOpenCard(pileNumber) == ArrayPileStorage.EMPTY || cardIndex != 0) {
+        return 0;
       }
+      return 1;
+    }
+    int cascadePileSize = piles.getNumCardsInCascade(pileNumber);
+    if (cardIndex < 0 || cardIndex >= cascadePileSize) {
+      return 0;
+    }
+    if (!isValidBuild(cardIndex, pileNumber)) {
+      return -1;
     }
+    return cascadePileSize - cardIndex;
   }
 }
@@ -0,0 +1,750 @@
+package cs3500.freecell.solver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Properties;
+
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.FreecellModel;
+import cs3500.freecell.model.FreecellModelCreator;
+import cs3500.freecell.model.FreecellPosition;
+import cs3500.freecell.model.MoveBuffer;
+import cs3500.freecell.model.SimpleFreecellModel;
+
+/**
+ * To represent a solver for games of freecell whose search does not have to fit in memory. The
+ * search is breadth-first, one layer at a time: layer d holds the canonical positions (see
+ * {@link FreecellPosition#canonical()}) first reached after d moves, each followed by the safe
+ * cards played automatically. Every layer, and the set of every position visited so far, is a
+ * sorted file of fixed size records in a directory on disk, read through memory mapping.
+ *
+ * <p>Duplicates are found in batches rather than by looking each position up in a hash table.
+ * The positions reached from a layer are collected in a buffer the size of the heap budget, which
+ * is sorted and written out as a run whenever it is full. Once the layer is done, the runs and the
+ * visited file are merged in a single pass: positions found in several runs are kept once, those
+ * already visited are dropped, and the rest become the next layer and are added to the visited
+ * file. All of this reads and writes the files in order, so the search only needs memory for the
+ * buffer, whatever the size of the files.
+ *
+ * <p>A search can be resumed. The directory keeps the last layer that was finished, so when the
+ * program is stopped, calling solve again on the same game and directory carries on from the
+ * start of the unfinished layer. A search that reaches its limit of positions also keeps the runs
+ * of the unfinished layer and how far through it the search got, and carries on from there. The
+ * files are deleted once the game is solved or found to be unsolvable.
+ *
+ * <p>Games are given as a {@link SimpleFreecellModel}, whose {@link SimpleFreecellModel#fork()}
+ * the positions of each layer are expanded on, and whose class is kept with the search so it is
+ * only resumed under the same rules.
+ */
+public class ExternalMemorySolver {
+  private static final String STATE_FILE = "search.state";
+  private static final String FORMAT = "3";
+
+  /**
+   * Largest number of runs read at once by a merge. Every run being read keeps a file and a
+   * mapping open, so the runs of a large layer are merged in several passes.
+   */
+  private static final int MERGE_WIDTH = 64;
+
+  /**
+   * Smallest heap budget of a solver.
+   */
+  public static final long MIN_HEAP_BUDGET = 1 << 16;
+
+  /**
+   * Estimate of the positions of a layer. A breadth-first search never orders positions by their
+   * estimate, so none is computed.
+   */
+  private static final Heuristic NO_ESTIMATE = position -> 0;
+
+  /**
+   * Visited set of a layer being expanded: every position reached is collected, and duplicates
+   * are removed when the layer is merged.
+   */
+  private static final VisitedPositions EVERY_POSITION = new VisitedPositions() {
+    @Override
+    public boolean visit(FreecellPosition position, int movesMade) {
+      return true;
+    }
+
+    @Override
+    public boolean reachedSooner(FreecellPosition position, int movesMade) {
+      return false;
+    }
+  };
+
+  private final Path directory;
+  private final long heapBudget;
+  private final long maxPositions;
+
+  /**
+   * Makes a solver.
+   *
+   * @param directory    is the directory holding the files of the search. It is created if
+   *                     needed, and must not be used by two searches at the same time.
+   * @param heapBudget   is the number of bytes of heap the positions reached from a layer may
+   *                     take before they are written to disk.
+   * @param maxPositions is the number of positions searched by each call to solve before it
+   *                     gives up. Calling solve again carries on from where the last call
+   *                     stopped, so the same limit can be used every time.
+   * @throws IllegalArgumentException if the directory is null, the heap budget is less than
+   *                                  {@link #MIN_HEAP_BUDGET} or the number of positions is not
+   *                                  positive.
+   */
+  public ExternalMemorySolver(Path directory, long heapBudget, long maxPositions) {
+    if (directory == null) {
+      throw new IllegalArgumentException("Directory can't be null.");
+    }
+    if (heapBudget < MIN_HEAP_BUDGET) {
+      throw new IllegalArgumentException("Heap budget is too small.");
+    }
+    if (maxPositions <= 0) {
+      throw new IllegalArgumentException("Number of positions must be positive.");
+    }
+    this.directory = directory;
+    this.heapBudget = heapBudget;
+    this.maxPositions = maxPositions;
+  }
+
+  /**
+   * Solves a deal of freecell from its first position.
+   *
+   * @param type            is the rules the game is played with.
+   * @param deck            is the deck being dealt, in the order it is dealt.
+   * @param numCascadePiles is the number of cascade piles.
+   * @param numOpenPiles    is the number of open piles.
+   * @return the outcome of the search.
+   * @throws IllegalArgumentException if the type is null or the game can't be started with the
+   *                                  given deck and piles.
+   * @throws IOException              if the files of the search can't be read or written.
+   */
+  public SolverResult solve(FreecellModelCreator.GameType type, List<Card> deck,
+                            int numCascadePiles, int numOpenPiles) throws IOException {
+    FreecellModel<Card> game = FreecellModelCreator.create(type);
+    game.startGame(deck, numCascadePiles, numOpenPiles, false);
+    return this.solve((SimpleFreecellModel) game);
+  }
+
+  /**
+   * Solves a game of freecell from its current position, resuming the search kept in the
+   * directory if it was started from the same position with the same rules. The game is not
+   * changed.
+   *
+   * @param game is the game being solved.
+   * @return the outcome of the search, whose moves win the game from its current position. The
+   *         number of positions searched counts those of earlier calls that stopped at the
+   *         limit.
+   * @throws IllegalArgumentException if the game is null.
+   * @throws IllegalStateException    if the game has not started.
+   * @throws IOException              if the files of the search can't be read or written.
+   */
+  public SolverResult solve(SimpleFreecellModel game) throws IOException {
+    if (game == null) {
+      throw new IllegalArgumentException("Game can't be null.");
+    }
+    PositionExpander expander = new PositionExpander(game, NO_ESTIMATE, 1);
+    SearchNode first = expander.first();
+    FreecellPosition start = first.position.canonical();
+    if (first.won) {
+      return new SolverResult(SolverResult.Status.SOLVED,
+              replay(game, Collections.singletonList(start)), 0);
+    }
+
+    Layout layout = new Layout(start.getNumCascadePiles(), start.getNumOpenPiles());
+    Files.createDirectories(this.directory);
+    Properties state = this.loadState(game, start);
+    if (state == null) {
+      state = this.startSearch(game, start, layout);
+    }
+    int depth = Integer.parseInt(state.getProperty("depth"));
+    long expanded = Long.parseLong(state.getProperty("expanded"));
+    List<Path> runs = new ArrayList<>();
+    int kept = Integer.parseInt(state.getProperty("runs"));
+    for (int i = 0; i < kept; i++) {
+      runs.add(this.runFile(i));
+    }
+    this.deleteStrayRuns(runs);
+    long searched = Long.parseLong(state.getProperty("searched"));
+    long left = this.maxPositions;
+
+    List<SearchNode> children = new ArrayList<>();
+    byte[] record = new byte[layout.layerRecord];
+    RunBuffer buffer = new RunBuffer(layout, this.heapBudget);
+    while (true) {
+      try (RecordReader layer = new RecordReader(this.layerFile(depth), layout.layerRecord)) {
+        layer.skip(expanded);
+        for (long index = expanded; layer.next(record); index++) {
+          if (left == 0) {
+            // the positions reached so far are kept, so the next call starts from this one.
+            if (!buffer.isEmpty()) {
+              runs.add(buffer.writeRun(this.runFile(runs.size())));
+            }
+            state.setProperty("expanded", Long.toString(index));
+            state.setProperty("runs", Integer.toString(runs.size()));
+            state.setProperty("searched", Long.toString(searched));
+            this.saveState(state);
+            return new SolverResult(SolverResult.Status.LIMIT_REACHED, new MoveBuffer(1),
+                    searched);
+          }
+          left -= 1;
+          searched += 1;
+
+          FreecellPosition position = FreecellPosition.fromBytes(layout.numCascadePiles,
+                  layout.numOpenPiles, record);
+          children.clear();
+          expander.expand(new SearchNode(position, null, 0, 0, 0, false, 0), EVERY_POSITION,
+                  children::add);
+          for (SearchNode child : children) {
+            FreecellPosition canonical = child.position.canonical();
+            if (child.won) {
+              List<FreecellPosition> chain = this.readChain(layout, depth, index);
+              chain.add(canonical);
+              MoveBuffer moves = replay(game, chain);
+              this.deleteFiles("*");
+              return new SolverResult(SolverResult.Status.SOLVED, moves, searched);
+            }
+            buffer.add(canonical, index);
+            if (buffer.isFull()) {
+              runs.add(buffer.writeRun(this.runFile(runs.size())));
+            }
+          }
+        }
+      }
+      if (!buffer.isEmpty()) {
+        runs.add(buffer.writeRun(this.runFile(runs.size())));
+      }
+
+      long added = this.mergeLayer(layout, depth, runs);
+      runs.clear();
+      expanded = 0;
+      depth += 1;
+      state.setProperty("depth", Integer.toString(depth));
+      state.setProperty("expanded", "0");
+      state.setProperty("runs", "0");
+      state.setProperty("searched", Long.toString(searched));
+      this.saveState(state);
+      this.deleteFiles("run-*");
+      Files.deleteIfExists(this.visitedFile(depth - 1));
+      if (added == 0) {
+        this.deleteFiles("*");
+        return new SolverResult(SolverResult.Status.UNSOLVABLE, new MoveBuffer(1), searched);
+      }
+    }
+  }
+
+  /**
+   * Merges the sorted runs of the positions reached from a layer with the visited positions, and
+   * writes the positions that were not visited before as the next layer, along with the new
+   * visited file. The runs are left for the caller to delete once the layer is saved.
+   *
+   * @return the number of positions in the next layer.
+   */
+  private long mergeLayer(Layout layout, int depth, List<Path> runs) throws IOException {
+    runs = this.narrowRuns(layout, runs);
+    Path layerTemp = this.directory.resolve("layer.tmp");
+    Path visitedTemp = this.directory.resolve("visited.tmp");
+    long added;
+    try (RecordReader visited = new RecordReader(this.visitedFile(depth), layout.positionBytes);
+         RecordWriter nextLayer = new RecordWriter(layerTemp, layout.layerRecord);
+         RecordWriter nextVisited = new RecordWriter(visitedTemp, layout.positionBytes)) {
+      byte[] old = new byte[layout.positionBytes];
+      boolean[] hasOld = {visited.next(old)};
+      this.mergeRuns(layout, runs, record -> {
+        while (hasOld[0] && layout.compare(old, record) < 0) {
+          nextVisited.write(old, 0);
+          hasOld[0] = visited.next(old);
+        }
+        if (!hasOld[0] || layout.compare(old, record) != 0) {
+          nextLayer.write(record, 0);
+          nextVisited.write(record, 0);
+        }
+      });
+      while (hasOld[0]) {
+        nextVisited.write(old, 0);
+        hasOld[0] = visited.next(old);
+      }
+      nextLayer.force();
+      nextVisited.force();
+      added = nextLayer.count();
+    }
+
+    // the layer is only counted as finished once both files are complete.
+    Files.move(layerTemp, this.layerFile(depth + 1), StandardCopyOption.REPLACE_EXISTING);
+    Files.move(visitedTemp, this.visitedFile(depth + 1), StandardCopyOption.REPLACE_EXISTING);
+    return added;
+  }
+
+  /**
+   * Merges groups of runs into larger runs until there are no more than {@link #MERGE_WIDTH} of
+   * them. Groups are made of neighbouring runs, so the run a position is kept from is still the
+   * first run it was written to.
+   *
+   * @return the runs left, in order.
+   */
+  private List<Path> narrowRuns(Layout layout, List<Path> runs) throws IOException {
+    int pass = 0;
+    while (runs.size() > MERGE_WIDTH) {
+      List<Path> merged = new ArrayList<>();
+      for (int from = 0; from < runs.size(); from += MERGE_WIDTH) {
+        List<Path> group = runs.subList(from, Math.min(from + MERGE_WIDTH, runs.size()));
+        Path file = this.directory.resolve("run-" + pass + "-" + merged.size());
+        try (RecordWriter run = new RecordWriter(file, layout.layerRecord)) {
+          this.mergeRuns(layout, group, record -> run.write(record, 0));
+        }
+        // the first runs are kept until the state no longer names them.
+        if (pass > 0) {
+          for (Path done : group) {
+            Files.delete(done);
+          }
+        }
+        merged.add(file);
+      }
+      runs = merged;
+      pass += 1;
+    }
+    return runs;
+  }
+
+  /**
+   * Reads sorted runs together in the order of their positions, giving each position once. When a
+   * position is in several runs, the record of the first of them is given.
+   *
+   * @param runs    is the runs, none of which holds a position twice.
+   * @param records is given every position, in order.
+   */
+  private void mergeRuns(Layout layout, List<Path> runs, RecordConsumer records)
+          throws IOException {
+    List<RunCursor> opened = new ArrayList<>();
+    try {
+      PriorityQueue<RunCursor> cursors = new PriorityQueue<>();
+      for (int i = 0; i < runs.size(); i++) {
+        RunCursor cursor = new RunCursor(new RecordReader(runs.get(i), layout.layerRecord),
+                layout, i);
+        opened.add(cursor);
+        if (cursor.advance()) {
+          cursors.add(cursor);
+        }
+      }
+
+      byte[] last = new byte[layout.layerRecord];
+      boolean hasLast = false;
+      while (!cursors.isEmpty()) {
+        RunCursor cursor = cursors.poll();
+        byte[] record = cursor.record;
+        if (!hasLast || layout.compare(record, last) != 0) {
+          records.accept(record);
+          System.arraycopy(record, 0, last, 0, record.length);
+          hasLast = true;
+        }
+        if (cursor.advance()) {
+          cursors.add(cursor);
+        }
+      }
+    }
+    finally {
+      for (RunCursor cursor : opened) {
+        cursor.reader.close();
+      }
+    }
+  }
+
+  /**
+   * Reads the positions leading from the first layer to a position of a layer, following the
+   * index of the position each one was reached from.
+   *
+   * @return the positions, from the first layer to the given one.
+   */
+  private List<FreecellPosition> readChain(Layout layout, int depth, long index)
+          throws IOException {
+    List<FreecellPosition> chain = new ArrayList<>();
+    byte[] record = new byte[layout.layerRecord];
+    for (int d = depth; d >= 0; d--) {
+      try (RecordReader layer = new RecordReader(this.layerFile(d), layout.layerRecord)) {
+        layer.read(index, record);
+      }
+      chain.add(FreecellPosition.fromBytes(layout.numCascadePiles, layout.numOpenPiles, record));
+      index = layout.parentOf(record);
+    }
+    Collections.reverse(chain);
+    return chain;
+  }
+
+  /**
+   * Finds the moves that win the game by going through the given canonical positions: at each
+   * step, the legal move of the game whose position, once the safe cards are played, has the next
+   * canonical position. The pile indices of the moves are those of the game itself.
+   *
+   * @param game  is the game being solved.
+   * @param chain is the canonical positions, starting with that of the game.
+   * @return the moves, including the cards played automatically.
+   */
+  private static MoveBuffer replay(SimpleFreecellModel game, List<FreecellPosition> chain) {
+    SimpleFreecellModel working = game.fork();
+    MoveRecorder recorder = new MoveRecorder(chain.size());
+    working.addListener(recorder);
+    working.autoPlay();
+
+    MoveBuffer moves = new MoveBuffer();
+    for (int step = 1; step < chain.size(); step++) {
+      recorder.setRecording(false);
+      working.getLegalMoves(moves);
+      int found = -1;
+      for (int i = 0; i < moves.size() && found < 0; i++) {
+        if (working.tryMove(moves.getSource(i), moves.getPileNumber(i), moves.getCardIndex(i),
+                moves.getDestination(i), moves.getDestPileNumber(i)).isSuccess()) {
+          int made = 1 + working.autoPlay();
+          if (working.getPosition().canonical().equals(chain.get(step))) {
+            found = i;
+          }
+          for (int undone = 0; undone < made; undone++) {
+            working.undo();
+          }
+        }
+      }
+      if (found < 0) {
+        throw new IllegalStateException("The files of the search do not match the game.");
+      }
+      recorder.setRecording(true);
+      working.move(moves.getSource(found), moves.getPileNumber(found),
+              moves.getCardIndex(found), moves.getDestination(found),
+              moves.getDestPileNumber(found));
+      working.autoPlay();
+    }
+    return recorder.getMoves();
+  }
+
+  /**
+   * Starts a new search from the given position, replacing any search kept in the directory.
+   *
+   * @return the state of the new search.
+   */
+  private Properties startSearch(SimpleFreecellModel game, FreecellPosition start, Layout layout)
+          throws IOException {
+    this.deleteFiles("*");
+    byte[] record = new byte[layout.layerRecord];
+    layout.encode(start, -1, record, 0);
+    try (RecordWriter layer = new RecordWriter(this.layerFile(0), layout.layerRecord);
+         RecordWriter visited = new RecordWriter(this.visitedFile(0), layout.positionBytes)) {
+      layer.write(record, 0);
+      visited.write(record, 0);
+      layer.force();
+      visited.force();
+    }
+    Properties state = new Properties();
+    state.setProperty("format", FORMAT);
+    state.setProperty("rules", game.getClass().getName());
+    state.setProperty("cascades", Integer.toString(layout.numCascadePiles));
+    state.setProperty("opens", Integer.toString(layout.numOpenPiles));
+    state.setProperty("start", toHex(start.toBytes()));
+    state.setProperty("depth", "0");
+    state.setProperty("expanded", "0");
+    state.setProperty("runs", "0");
+    state.setProperty("searched", "0");
+    this.saveState(state);
+    return state;
+  }
+
+  /**
+   * Loads the state of the search kept in the directory.
+   *
+   * @return the state, or null if there is no search of the given game from the given position.
+   */
+  private Properties loadState(SimpleFreecellModel game, FreecellPosition start)
+          throws IOException {
+    Path file = this.directory.resolve(STATE_FILE);
+    if (!Files.exists(file)) {
+      return null;
+    }
+    Properties state = new Properties();
+    try (InputStream in = Files.newInputStream(file)) {
+      state.load(in);
+    }
+    boolean same = FORMAT.equals(state.getProperty("format"))
+            && game.getClass().getName().equals(state.getProperty("rules"))
+            && Integer.toString(start.getNumCascadePiles()).equals(state.getProperty("cascades"))
+            && Integer.toString(start.getNumOpenPiles()).equals(state.getProperty("opens"))
+            && toHex(start.toBytes()).equals(state.getProperty("start"));
+    return same ? state : null;
+  }
+
+  /**
+   * Saves the state of the search, replacing the old state in a single step so a search stopped
+   * at any time still has a valid state. The files the state refers to must already be forced to
+   * the disk, and the new state is forced too before it replaces the old one, so after a crash the
+   * state never names data that was lost.
+   */
+  private void saveState(Properties state) throws IOException {
+    Path temp = this.directory.resolve(STATE_FILE + ".tmp");
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+         OutputStream out = Channels.newOutputStream(channel)) {
+      state.store(out, "freecell external memory search");
+      channel.force(true);
+    }
+    Files.move(temp, this.directory.resolve(STATE_FILE), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    this.forceDirectory();
+  }
+
+  /**
+   * Forces the names of the files of the directory to the disk, so the files renamed into place
+   * are found again after a crash. Some systems can't open a directory for this, and there the
+   * renames are left to the file system.
+   */
+  private void forceDirectory() {
+    try (FileChannel channel = FileChannel.open(this.directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      // the directory can't be forced on this system.
+    }
+  }
+
+  /**
+   * Deletes the files of the search matching a glob, leaving any other file of the directory.
+   */
+  private void deleteFiles(String glob) throws IOException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, glob)) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        if (name.startsWith("layer") || name.startsWith("visited") || name.startsWith("run-")
+                || name.startsWith(STATE_FILE)) {
+          Files.delete(file);
+        }
+      }
+    }
+  }
+
+  /**
+   * Deletes the runs left by a search that was stopped, other than those of the unfinished layer
+   * named by the state.
+   */
+  private void deleteStrayRuns(List<Path> kept) throws IOException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "run-*")) {
+      for (Path file : files) {
+        if (!kept.contains(file)) {
+          Files.delete(file);
+        }
+      }
+    }
+  }
+
+  private Path runFile(int index) {
+    return this.directory.resolve("run-" + index);
+  }
+
+  private Path layerFile(int depth) {
+    return this.directory.resolve("layer-" + depth);
+  }
+
+  private Path visitedFile(int depth) {
+    return this.directory.resolve("visited-" + depth);
+  }
+
+  /**
+   * Writes bytes as hexadecimal digits.
+   */
+  private static String toHex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder();
+    for (byte b : bytes) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  /**
+   * To represent the layout of the records of a search. A position takes the bytes of the largest
+   * position with the same number of piles, padded with zeros, so every record has the same size
+   * and records sort by their bytes. A layer record is followed by the index, in the previous
+   * layer, of the position it was reached from, as a long since a layer may hold more positions
+   * than an int can count.
+   */
+  private static final class Layout {
+    private final int numCascadePiles;
+    private final int numOpenPiles;
+    private final int positionBytes;
+    private final int layerRecord;
+
+    Layout(int numCascadePiles, int numOpenPiles) {
+      this.numCascadePiles = numCascadePiles;
+      this.numOpenPiles = numOpenPiles;
+      this.positionBytes = numCascadePiles + Card.DECK_SIZE + numOpenPiles + 4;
+      this.layerRecord = this.positionBytes + Long.BYTES;
+    }
+
+    /**
+     * Writes a position and the index of its parent into a layer record starting at an offset.
+     */
+    void encode(FreecellPosition position, long parent, byte[] records, int offset) {
+      int length = position.copyBytes(records, offset);
+      Arrays.fill(records, offset + length, offset + this.positionBytes, (byte) 0);
+      for (int i = 0; i < Long.BYTES; i++) {
+        records[offset + this.positionBytes + i] = (byte) (parent >>> (56 - 8 * i));
+      }
+    }
+
+    /**
+     * Reads the index of the parent of a layer record.
+     */
+    long parentOf(byte[] record) {
+      long parent = 0;
+      for (int i = 0; i < Long.BYTES; i++) {
+        parent = parent << 8 | (record[this.positionBytes + i] & 0xFF);
+      }
+      return parent;
+    }
+
+    /**
+     * Compares the positions of two records by their bytes.
+     */
+    int compare(byte[] first, byte[] second) {
+      return compare(first, 0, second, 0);
+    }
+
+    /**
+     * Compares the positions of two records starting at the given offsets.
+     */
+    int compare(byte[] first, int firstOffset, byte[] second, int secondOffset) {
+      for (int i = 0; i < this.positionBytes; i++) {
+        int diff = first[firstOffset + i] - second[secondOffset + i];
+        if (diff != 0) {
+          return diff;
+        }
+      }
+      return 0;
+    }
+  }
+
+  /**
+   * To represent the positions reached from a layer that are kept in memory until they are
+   * written to disk as a sorted run.
+   */
+  private static final class RunBuffer {
+    private final Layout layout;
+    private final byte[] records;
+    private final int[] order;
+    private final int[] scratch;
+    private int size;
+
+    RunBuffer(Layout layout, long heapBudget) {
+      this.layout = layout;
+      // each record also takes two ints of the arrays sorting it.
+      long capacity = Math.min(heapBudget / (layout.layerRecord + 8),
+              Integer.MAX_VALUE / layout.layerRecord);
+      this.records = new byte[(int) capacity * layout.layerRecord];
+      this.order = new int[(int) capacity];
+      this.scratch = new int[(int) capacity];
+      this.size = 0;
+    }
+
+    void add(FreecellPosition position, long parent) {
+      this.layout.encode(position, parent, this.records, this.size * this.layout.layerRecord);
+      this.order[this.size] = this.size;
+      this.size += 1;
+    }
+
+    boolean isFull() {
+      return this.size == this.order.length;
+    }
+
+    boolean isEmpty() {
+      return this.size == 0;
+    }
+
+    /**
+     * Sorts the records, writes them to a file without duplicates, forces the file to the disk
+     * and empties the buffer.
+     *
+     * @return the file written.
+     */
+    Path writeRun(Path file) throws IOException {
+      this.sort(0, this.size);
+      int recordSize = this.layout.layerRecord;
+      try (RecordWriter run = new RecordWriter(file, recordSize)) {
+        for (int i = 0; i < this.size; i++) {
+          int offset = this.order[i] * recordSize;
+          if (i == 0 || this.layout.compare(this.records, offset, this.records,
+                  this.order[i - 1] * recordSize) != 0) {
+            run.write(this.records, offset);
+          }
+        }
+        // a run may be named by the state of a search that stopped partway through a layer.
+        run.force();
+      }
+      this.size = 0;
+      return file;
+    }
+
+    /**
+     * Sorts part of the order of the records with a merge sort.
+     */
+    private void sort(int from, int to) {
+      if (to - from < 2) {
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      this.sort(from, middle);
+      this.sort(middle, to);
+      int recordSize = this.layout.layerRecord;
+      int left = from;
+      int right = middle;
+      for (int i = from; i < to; i++) {
+        if (right >= to || (left < middle
+                && this.layout.compare(this.records, this.order[left] * recordSize,
+                        this.records, this.order[right] * recordSize) <= 0)) {
+          this.scratch[i] = this.order[left++];
+        }
+        else {
+          this.scratch[i] = this.order[right++];
+        }
+      }
+      System.arraycopy(this.scratch, from, this.order, from, to - from);
+    }
+  }
+
+  /**
+   * To represent something given the records of a merge, one at a time.
+   */
+  private interface RecordConsumer {
+    void accept(byte[] record) throws IOException;
+  }
+
+  /**
+   * To represent the next record of a sorted run being merged.
+   */
+  private static final class RunCursor implements Comparable<RunCursor> {
+    private final RecordReader reader;
+    private final Layout layout;
+    private final int run;
+    private final byte[] record;
+
+    RunCursor(RecordReader reader, Layout layout, int run) {
+      this.reader = reader;
+      this.layout = layout;
+      this.run = run;
+      this.record = new byte[layout.layerRecord];
+    }
+
+    boolean advance() throws IOException {
+      return this.reader.next(this.record);
+    }
+
+    @Override
+    public int compareTo(RunCursor other) {
+      int byPosition = this.layout.compare(this.record, other.record);
+      return byPosition != 0 ? byPosition : this.run - other.run;
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package cs3500.freecell.solver;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.FreecellModel;
+import cs3500.freecell.model.FreecellModelCreator;
+import cs3500.freecell.model.FreecellPosition;
+import cs3500.freecell.model.MoveBuffer;
+import cs3500.freecell.model.SimpleFreecellModel;
+
+/**
+ * To represent a solver for games of freecell. The solver runs a best-first search (weighted A*)
+ * over the positions of a game: it always tries the moves of the position with the lowest
+ * {@code g + weight * h}, where g is the number of moves made to reach the position and h is the
+ * estimate of its {@link Heuristic}. With an admissible heuristic and a weight of 1 the solution
+ * found is the shortest among those that always play the safe cards right away (see below), which
+ * may be longer than the shortest solution of the game; a larger weight or an inadmissible
+ * heuristic finds a solution after searching far fewer positions, but it may be longer still.
+ *
+ * <p>The solver follows the rules of the game it is given, so a game of
+ * {@link FreecellModelCreator.GameType#MULTIMOVE} is solved with moves of whole builds. The moves
+ * are found on a fork of the game, and the game itself is never changed. After every move the
+ * cards that are safe to play are played to the foundation piles (see
+ * {@link cs3500.freecell.model.FreecellModel#autoPlay()}), and those moves are part of the
+ * solution too.
+ *
+ * <p>Games are given as a {@link SimpleFreecellModel} rather than any {@link FreecellModel},
+ * since the search needs {@link SimpleFreecellModel#fork()} to make moves on a copy that follows
+ * the same rules, and the interface has no way to tell which rules a game follows. A game shared
+ * through a {@link cs3500.freecell.model.concurrent.ConcurrentFreecellModel} is solved by
+ * solving its fork.
+ */
+public class FreecellSolver {
+  private final Heuristic heuristic;
+  private final double weight;
+  private final int maxPositions;
+
+  /**
+   * Makes a solver that quickly solves most deals, using the
+   * {@link Heuristics#BLOCKERS_AND_OPEN_CELLS} heuristic with a weight of 5, and giving up after
+   * searching 200000 positions.
+   */
+  public FreecellSolver() {
+    this(Heuristics.BLOCKERS_AND_OPEN_CELLS, 5, 200_000);
+  }
+
+  /**
+   * Makes a solver.
+   *
+   * @param heuristic    is the estimate of the moves left in a position.
+   * @param weight       is how much the estimate counts against the moves already made.
+   * @param maxPositions is the number of positions searched before giving up.
+   * @throws IllegalArgumentException if the heuristic is null, the weight is less than 1 or the
+   *                                  number of positions is not positive.
+   */
+  public FreecellSolver(Heuristic heuristic, double weight, int maxPositions) {
+    if (heuristic == null) {
+      throw new IllegalArgumentException("Heuristic can't be null.");
+    }
+    if (!(weight >= 1)) {
+      throw new IllegalArgumentException("Weight must be at least 1.");
+    }
+    if (maxPositions <= 0) {
+      throw new IllegalArgumentException("Number of positions must be positive.");
+    }
+    this.heuristic = heuristic;
+    this.weight = weight;
+    this.maxPositions = maxPositions;
+  }
+
+  /**
+   * Solves a deal of freecell from its first position.
+   *
+   * @param type            is the rules the game is played with.
+   * @param deck            is the deck being dealt, in the order it is dealt.
+   * @param numCascadePiles is the number of cascade piles.
+   * @param numOpenPiles    is the number of open piles.
+   * @return the outcome of the search.
+   * @throws IllegalArgumentException if the type is null or the game can't be started with the
+   *                                  given deck and piles.
+   */
+  public SolverResult solve(FreecellModelCreator.GameType type, List<Card> deck,
+                            int numCascadePiles, int numOpenPiles) {
+    FreecellModel<Card> game = FreecellModelCreator.create(type);
+    game.startGame(deck, numCascadePiles, numOpenPiles, false);
+    return this.solve((SimpleFreecellModel) game);
+  }
+
+  /**
+   * Solves a game of freecell from its current position. The game is not changed.
+   *
+   * @param game is the game being solved.
+   * @return the outcome of the search, whose moves win the game from its current position.
+   * @throws IllegalArgumentException if the game is null.
+   * @throws IllegalStateException    if the game has not started.
+   */
+  public SolverResult solve(SimpleFreecellModel game) {
+    if (game == null) {
+      throw new IllegalArgumentException("Game can't be null.");
+    }
+    PositionExpander expander = new PositionExpander(game, this.heuristic, this.weight);
+    PriorityQueue<SearchNode> open = new PriorityQueue<>();
+    BestMoves visited = new BestMoves();
+
+    SearchNode first = expander.first();
+    visited.visit(first.position, first.movesMade);
+    open.add(first);
+    int searched = 0;
+
+    while (!open.isEmpty()) {
+      SearchNode node = open.poll();
+      if (visited.reachedSooner(node.position, node.movesMade)) {
+        // a shorter way to this position was found after this node was queued.
+        continue;
+      }
+      if (node.won) {
+        return new SolverResult(SolverResult.Status.SOLVED, expander.replay(node), searched);
+      }
+      if (searched == this.maxPositions) {
+        return new SolverResult(SolverResult.Status.LIMIT_REACHED, new MoveBuffer(1), searched);
+      }
+      searched += 1;
+      expander.expand(node, visited, open::add);
+    }
+    return new SolverResult(SolverResult.Status.UNSOLVABLE, new MoveBuffer(1), searched);
+  }
+
+  /**
+   * To represent the positions reached by a search on a single thread. Positions that only differ
+   * in the order of their piles are the same entry (see {@link FreecellPosition#canonical()}).
+   */
+  private static final class BestMoves implements VisitedPositions {
+    private final Map<FreecellPosition, Integer> moves = new HashMap<>();
+
+    @Override
+    public boolean visit(FreecellPosition position, int movesMade) {
+      FreecellPosition canonical = position.canonical();
+      Integer best = this.moves.get(canonical);
+      if (best != null && best <= movesMade) {
+        return false;
+      }
+      this.moves.put(canonical, movesMade);
+      return true;
+    }
+
+    @Override
+    public boolean reachedSooner(FreecellPosition position, int movesMade) {
+      return this.moves.get(position.canonical()) < movesMade;
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package cs3500.freecell.solver;
+
+import cs3500.freecell.model.FreecellPosition;
+
+/**
+ * This interface represents an estimate of how many moves are still needed to win a game of
+ * freecell from a position. A heuristic is admissible if it never estimates more moves than are
+ * really needed; searching with an admissible heuristic finds the shortest solution, while other
+ * heuristics usually find a solution much faster.
+ */
+public interface Heuristic {
+
+  /**
+   * Estimate the number of moves needed to win the game from the given position.
+   *
+   * @param position the position of the game
+   * @return the estimated number of moves, 0 if every card is in the foundation piles
+   */
+  int estimate(FreecellPosition position);
+}
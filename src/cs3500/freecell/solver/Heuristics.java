@@ -0,0 +1,82 @@
+package cs3500.freecell.solver;
+
+import cs3500.freecell.model.ArrayPileStorage;
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.FreecellPosition;
+
+/**
+ * The heuristics the solver comes with.
+ * CardsLeft: the number of cards not in the foundation piles. Every card needs its own move to a
+ * foundation pile, so this is admissible. <br>
+ * Blockers: the cards left, plus the number of cascade cards lying above a lower card of their
+ * suit. Each of those cards has to be moved out of the way before the lower card can reach its
+ * foundation pile, so when cards are moved one at a time this is admissible too. <br>
+ * BlockersAndOpenCells: twice the cards left, plus the blockers and the number of open piles in
+ * use. This is not admissible, but it favors positions that are close to the end and keep room to
+ * move builds, which finds a solution to most deals after searching few positions.
+ */
+public enum Heuristics implements Heuristic {
+  CARDS_LEFT {
+    @Override
+    public int estimate(FreecellPosition position) {
+      return cardsLeft(position);
+    }
+  },
+  BLOCKERS {
+    @Override
+    public int estimate(FreecellPosition position) {
+      return cardsLeft(position) + blockers(position);
+    }
+  },
+  BLOCKERS_AND_OPEN_CELLS {
+    @Override
+    public int estimate(FreecellPosition position) {
+      int usedOpens = 0;
+      for (int i = 0; i < position.getNumOpenPiles(); i++) {
+        if (position.getOpenCard(i) != ArrayPileStorage.EMPTY) {
+          usedOpens += 1;
+        }
+      }
+      return 2 * cardsLeft(position) + blockers(position) + usedOpens;
+    }
+  };
+
+  /**
+   * Counts the cards that are not in the foundation piles.
+   */
+  private static int cardsLeft(FreecellPosition position) {
+    int left = Card.DECK_SIZE;
+    for (int i = 0; i < ArrayPileStorage.NUM_FOUNDATIONS; i++) {
+      int top = position.getFoundationTop(i);
+      if (top != ArrayPileStorage.EMPTY) {
+        left -= top % 13 + 1;
+      }
+    }
+    return left;
+  }
+
+  /**
+   * Counts the cascade cards that lie above a lower card of their suit in the same pile.
+   */
+  private static int blockers(FreecellPosition position) {
+    // the lowest rank of each suit seen so far in the pile.
+    int[] lowest = new int[4];
+    int blocking = 0;
+    for (int pile = 0; pile < position.getNumCascadePiles(); pile++) {
+      for (int suit = 0; suit < lowest.length; suit++) {
+        lowest[suit] = 13;
+      }
+      int size = position.getNumCardsInCascadePile(pile);
+      for (int depth = 0; depth < size; depth++) {
+        int card = position.getCascadeCard(pile, depth);
+        if (card % 13 > lowest[card / 13]) {
+          blocking += 1;
+        }
+        else {
+          lowest[card / 13] = card % 13;
+        }
+      }
+    }
+    return blocking;
+  }
+}
@@ -0,0 +1,62 @@
+package cs3500.freecell.solver;
+
+import cs3500.freecell.model.FreecellModelListener;
+import cs3500.freecell.model.MoveBuffer;
+import cs3500.freecell.model.PileType;
+
+/**
+ * To represent a listener writing down the moves made in a game while it is recording, including
+ * the cards played to the foundation piles automatically. A move of cascade cards is written down
+ * with the index of its first card, so the moves can be made again in a game in the same position.
+ */
+final class MoveRecorder implements FreecellModelListener {
+  private final MoveBuffer moves;
+  private boolean recording;
+
+  /**
+   * Makes a recorder that starts out recording.
+   *
+   * @param capacity is the number of moves expected.
+   */
+  MoveRecorder(int capacity) {
+    this.moves = new MoveBuffer(capacity);
+    this.recording = true;
+  }
+
+  /**
+   * Sets whether the moves made from now on are written down.
+   *
+   * @param recording is true to write down the moves.
+   */
+  void setRecording(boolean recording) {
+    this.recording = recording;
+  }
+
+  /**
+   * Gets the moves written down so far.
+   *
+   * @return the moves, in the order they were made.
+   */
+  MoveBuffer getMoves() {
+    return this.moves;
+  }
+
+  @Override
+  public void gameStarted(int numCascadePiles, int numOpenPiles) {
+    // positions are only restored before the moves are made.
+  }
+
+  @Override
+  public void cardsMoved(PileType source, int pileNumber, int count, PileType destination,
+                         int destPileNumber, int sourceSize, int destSize) {
+    if (this.recording) {
+      this.moves.add(source, pileNumber, source == PileType.CASCADE ? sourceSize : 0,
+              destination, destPileNumber);
+    }
+  }
+
+  @Override
+  public void gameOver() {
+    // the last move is written down by cardsMoved.
+  }
+}
@@ -0,0 +1,306 @@
+package cs3500.freecell.solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.FreecellModel;
+import cs3500.freecell.model.FreecellModelCreator;
+import cs3500.freecell.model.FreecellPosition;
+import cs3500.freecell.model.MoveBuffer;
+import cs3500.freecell.model.SimpleFreecellModel;
+
+/**
+ * To represent a solver for games of freecell that searches on every core of a
+ * {@link ForkJoinPool}. The search is the same best-first search as {@link FreecellSolver}, but
+ * the frontier is split between tasks: each task searches its own part of the frontier best
+ * first, and gives half of it to a new task whenever the pool has idle workers to steal it. All
+ * tasks share one lock-free {@link TranspositionTable} of visited positions, so a position is
+ * rarely searched twice while the memory taken by the visited positions stays fixed, and every
+ * task stops as soon as any of them finds a solution or the limit of positions is reached.
+ *
+ * <p>Which solution is found, and the number of positions searched, may change from one run to
+ * the next, since they depend on how the work was spread between the workers.
+ *
+ * <p>Like {@link FreecellSolver}, it solves a {@link SimpleFreecellModel}, since every worker
+ * searches on its own {@link SimpleFreecellModel#fork()} of the game.
+ */
+public class ParallelFreecellSolver {
+
+  /**
+   * Number of positions a task must have in its frontier before it gives some of them away.
+   */
+  private static final int SPLIT_SIZE = 32;
+
+  /**
+   * Memory taken by the table of visited positions if none is given, 2^21 entries.
+   */
+  private static final long DEFAULT_TABLE_BYTES = 1L << 25;
+
+  private final Heuristic heuristic;
+  private final double weight;
+  private final int maxPositions;
+  private final ForkJoinPool pool;
+  private final long tableBytes;
+
+  /**
+   * Makes a solver running on the common pool, using the
+   * {@link Heuristics#BLOCKERS_AND_OPEN_CELLS} heuristic with a weight of 5, and giving up after
+   * searching 1000000 positions.
+   */
+  public ParallelFreecellSolver() {
+    this(Heuristics.BLOCKERS_AND_OPEN_CELLS, 5, 1_000_000, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Makes a solver whose table of visited positions takes 32 MB.
+   *
+   * @param heuristic    is the estimate of the moves left in a position.
+   * @param weight       is how much the estimate counts against the moves already made.
+   * @param maxPositions is the number of positions searched, by all workers together, before
+   *                     giving up.
+   * @param pool         is the pool the search runs on.
+   * @throws IllegalArgumentException if the heuristic or the pool is null, the weight is less than
+   *                                  1 or the number of positions is not positive.
+   */
+  public ParallelFreecellSolver(Heuristic heuristic, double weight, int maxPositions,
+                                ForkJoinPool pool) {
+    this(heuristic, weight, maxPositions, pool, DEFAULT_TABLE_BYTES);
+  }
+
+  /**
+   * Makes a solver.
+   *
+   * @param heuristic    is the estimate of the moves left in a position.
+   * @param weight       is how much the estimate counts against the moves already made.
+   * @param maxPositions is the number of positions searched, by all workers together, before
+   *                     giving up.
+   * @param pool         is the pool the search runs on.
+   * @param tableBytes   is the memory the table of visited positions of each search may take.
+   * @throws IllegalArgumentException if the heuristic or the pool is null, the weight is less than
+   *                                  1, the number of positions is not positive or the table
+   *                                  can't hold a few positions.
+   */
+  public ParallelFreecellSolver(Heuristic heuristic, double weight, int maxPositions,
+                                ForkJoinPool pool, long tableBytes) {
+    if (heuristic == null) {
+      throw new IllegalArgumentException("Heuristic can't be null.");
+    }
+    if (!(weight >= 1)) {
+      throw new IllegalArgumentException("Weight must be at least 1.");
+    }
+    if (maxPositions <= 0) {
+      throw new IllegalArgumentException("Number of positions must be positive.");
+    }
+    if (pool == null) {
+      throw new IllegalArgumentException("Pool can't be null.");
+    }
+    if (tableBytes < TranspositionTable.MIN_MEMORY_BUDGET) {
+      throw new IllegalArgumentException("Memory budget is too small.");
+    }
+    this.heuristic = heuristic;
+    this.weight = weight;
+    this.maxPositions = maxPositions;
+    this.pool = pool;
+    this.tableBytes = tableBytes;
+  }
+
+  /**
+   * Solves a deal of freecell from its first position.
+   *
+   * @param type            is the rules the game is played with.
+   * @param deck            is the deck being dealt, in the order it is dealt.
+   * @param numCascadePiles is the number of cascade piles.
+   * @param numOpenPiles    is the number of open piles.
+   * @return the outcome of the search.
+   * @throws IllegalArgumentException if the type is null or the game can't be started with the
+   *                                  given deck and piles.
+   */
+  public SolverResult solve(FreecellModelCreator.GameType type, List<Card> deck,
+                            int numCascadePiles, int numOpenPiles) {
+    FreecellModel<Card> game = FreecellModelCreator.create(type);
+    game.startGame(deck, numCascadePiles, numOpenPiles, false);
+    return this.solve((SimpleFreecellModel) game);
+  }
+
+  /**
+   * Solves a game of freecell from its current position. The game is not changed, and must not
+   * be changed by another thread while it is being solved.
+   *
+   * @param game is the game being solved.
+   * @return the outcome of the search, whose moves win the game from its current position.
+   * @throws IllegalArgumentException if the game is null.
+   * @throws IllegalStateException    if the game has not started.
+   */
+  public SolverResult solve(SimpleFreecellModel game) {
+    if (game == null) {
+      throw new IllegalArgumentException("Game can't be null.");
+    }
+    Search search = new Search(game.fork());
+    PositionExpander expander = search.newExpander();
+    SearchNode first = expander.first();
+    search.visited.visit(first.position, first.movesMade);
+    List<SearchNode> frontier = new ArrayList<>();
+    frontier.add(first);
+    this.pool.invoke(new SearchTask(search, frontier));
+
+    SearchNode solution = search.solution.get();
+    if (solution != null) {
+      return new SolverResult(SolverResult.Status.SOLVED, expander.replay(solution),
+              search.searched.get());
+    }
+    else if (search.limitReached) {
+      return new SolverResult(SolverResult.Status.LIMIT_REACHED, new MoveBuffer(1),
+              search.searched.get());
+    }
+    else {
+      return new SolverResult(SolverResult.Status.UNSOLVABLE, new MoveBuffer(1),
+              search.searched.get());
+    }
+  }
+
+  /**
+   * To represent the state shared by every task of one search.
+   */
+  private final class Search {
+    private final SimpleFreecellModel game;
+    private final TableVisitedPositions visited;
+    private final AtomicInteger searched;
+    private final AtomicReference<SearchNode> solution;
+    private volatile boolean limitReached;
+
+    Search(SimpleFreecellModel game) {
+      this.game = game;
+      this.visited = new TableVisitedPositions(new TranspositionTable(tableBytes,
+              TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+      this.searched = new AtomicInteger();
+      this.solution = new AtomicReference<>();
+      this.limitReached = false;
+    }
+
+    /**
+     * Makes an expander working on its own fork of the game.
+     */
+    PositionExpander newExpander() {
+      // forking marks the cascade piles of the game as shared, so tasks fork it one at a time.
+      synchronized (this.game) {
+        return new PositionExpander(this.game, heuristic, weight);
+      }
+    }
+
+    /**
+     * Checks if every task should stop.
+     */
+    boolean isFinished() {
+      return this.limitReached || this.solution.get() != null;
+    }
+
+    /**
+     * Counts a position about to be searched.
+     *
+     * @return false if the limit of positions was reached, so the position must not be searched.
+     */
+    boolean count() {
+      int count;
+      do {
+        count = this.searched.get();
+        if (count >= maxPositions) {
+          this.limitReached = true;
+          return false;
+        }
+      }
+      while (!this.searched.compareAndSet(count, count + 1));
+      return true;
+    }
+  }
+
+  /**
+   * To represent the search of part of the frontier.
+   */
+  private final class SearchTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Search search;
+    private final Collection<SearchNode> frontier;
+
+    SearchTask(Search search, Collection<SearchNode> frontier) {
+      this.search = search;
+      this.frontier = frontier;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.search.isFinished()) {
+        return;
+      }
+      PositionExpander expander = this.search.newExpander();
+      PriorityQueue<SearchNode> open = new PriorityQueue<>(this.frontier);
+      List<SearchTask> given = new ArrayList<>();
+
+      while (!open.isEmpty() && !this.search.isFinished()) {
+        SearchNode node = open.poll();
+        if (this.search.visited.reachedSooner(node.position, node.movesMade)) {
+          // a shorter way to this position was found after this node was queued.
+          continue;
+        }
+        if (node.won) {
+          this.search.solution.compareAndSet(null, node);
+          break;
+        }
+        if (!this.search.count()) {
+          break;
+        }
+        expander.expand(node, this.search.visited, open::add);
+
+        if (open.size() >= SPLIT_SIZE && getSurplusQueuedTaskCount() <= 0) {
+          // give every second position away, so both tasks keep some of the best ones.
+          List<SearchNode> kept = new ArrayList<>(open.size() / 2 + 1);
+          List<SearchNode> split = new ArrayList<>(open.size() / 2);
+          while (!open.isEmpty()) {
+            kept.add(open.poll());
+            if (!open.isEmpty()) {
+              split.add(open.poll());
+            }
+          }
+          open.addAll(kept);
+          SearchTask task = new SearchTask(this.search, split);
+          task.fork();
+          given.add(task);
+        }
+      }
+
+      for (int i = given.size() - 1; i >= 0; i--) {
+        given.get(i).join();
+      }
+    }
+  }
+
+  /**
+   * To represent the positions reached by a search on several threads, by the keys of their
+   * canonical positions (see {@link FreecellPosition#canonical()}).
+   */
+  private static final class TableVisitedPositions implements VisitedPositions {
+    private final TranspositionTable table;
+
+    TableVisitedPositions(TranspositionTable table) {
+      this.table = table;
+    }
+
+    @Override
+    public boolean visit(FreecellPosition position, int movesMade) {
+      return this.table.offer(position.canonical().getKey(), movesMade);
+    }
+
+    @Override
+    public boolean reachedSooner(FreecellPosition position, int movesMade) {
+      int best = this.table.probe(position.canonical().getKey());
+      return best != TranspositionTable.NOT_FOUND && best < movesMade;
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package cs3500.freecell.solver;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+import cs3500.freecell.model.FreecellPosition;
+import cs3500.freecell.model.MoveBuffer;
+import cs3500.freecell.model.PileType;
+import cs3500.freecell.model.SimpleFreecellModel;
+
+/**
+ * To represent the part of a search that finds the positions one move away from another. The moves
+ * are tried on a fork of the game being solved, so they follow its rules, and after every move the
+ * cards that are safe to play are played to the foundation piles. An expander is used by one
+ * thread at a time.
+ */
+final class PositionExpander {
+  private final SimpleFreecellModel working;
+  private final FreecellPosition start;
+  private final Heuristic heuristic;
+  private final double weight;
+  private final MoveBuffer moves;
+  private long order;
+
+  /**
+   * Makes an expander for a game.
+   *
+   * @param game      is the game being solved, in the position the search starts from. It is
+   *                  forked and never changed.
+   * @param heuristic is the estimate of the moves left in a position.
+   * @param weight    is how much the estimate counts against the moves already made.
+   */
+  PositionExpander(SimpleFreecellModel game, Heuristic heuristic, double weight) {
+    this.working = game.fork();
+    this.start = this.working.getPosition();
+    this.heuristic = heuristic;
+    this.weight = weight;
+    this.moves = new MoveBuffer();
+    this.order = 0;
+  }
+
+  /**
+   * Makes the node the search starts from: the starting position once the safe cards were played.
+   *
+   * @return the first node of the search.
+   */
+  SearchNode first() {
+    this.working.restorePosition(this.start);
+    int made = this.working.autoPlay();
+    FreecellPosition first = this.working.getPosition();
+    return new SearchNode(first, null, made, made + this.weight * this.heuristic.estimate(first),
+            this.order++, this.working.isGameOver(), 0);
+  }
+
+  /**
+   * Tries every move of a position, and gives the positions reached that were visited with fewer
+   * moves than before.
+   *
+   * @param node     is the position being expanded.
+   * @param visited  is the positions reached so far.
+   * @param children is given the nodes of the positions reached.
+   */
+  void expand(SearchNode node, VisitedPositions visited, Consumer<SearchNode> children) {
+    this.working.restorePosition(node.position);
+    this.working.getLegalMoves(this.moves);
+    for (int i = 0; i < this.moves.size(); i++) {
+      if (this.isPointless(i)) {
+        continue;
+      }
+      if (!this.working.tryMove(this.moves.getSource(i), this.moves.getPileNumber(i),
+              this.moves.getCardIndex(i), this.moves.getDestination(i),
+              this.moves.getDestPileNumber(i)).isSuccess()) {
+        continue;
+      }
+      // safe cards are always played, so positions only differ in the moves that matter.
+      int made = 1 + this.working.autoPlay();
+      FreecellPosition child = this.working.getPosition();
+      boolean won = this.working.isGameOver();
+      for (int undone = 0; undone < made; undone++) {
+        this.working.undo();
+      }
+
+      int movesMade = node.movesMade + made;
+      if (visited.visit(child, movesMade)) {
+        double priority = movesMade + this.weight * this.heuristic.estimate(child);
+        children.accept(new SearchNode(child, node, movesMade, priority, this.order++, won,
+                this.moves.getPacked(i)));
+      }
+    }
+  }
+
+  /**
+   * Makes the moves that lead from the start of the search to the given position again, this time
+   * writing down every move, including the cards played to the foundation piles automatically.
+   *
+   * @param last is the position reached at the end of the moves.
+   * @return the moves, in the order they are made.
+   */
+  MoveBuffer replay(SearchNode last) {
+    Deque<SearchNode> nodes = new ArrayDeque<>();
+    for (SearchNode node = last; node.parent != null; node = node.parent) {
+      nodes.push(node);
+    }
+    MoveBuffer path = new MoveBuffer(Math.max(1, nodes.size()));
+    for (SearchNode node : nodes) {
+      path.addPacked(node.move);
+    }
+    MoveRecorder recorder = new MoveRecorder(Math.max(1, last.movesMade));
+    this.working.restorePosition(this.start);
+    this.working.addListener(recorder);
+    try {
+      this.working.autoPlay();
+      for (int i = 0; i < path.size(); i++) {
+        this.working.move(path.getSource(i), path.getPileNumber(i), path.getCardIndex(i),
+                path.getDestination(i), path.getDestPileNumber(i));
+        this.working.autoPlay();
+      }
+    } finally {
+      this.working.removeListener(recorder);
+    }
+    return recorder.getMoves();
+  }
+
+  /**
+   * Checks if a move can't help: moving a whole cascade pile into an empty cascade pile only swaps
+   * the two piles.
+   */
+  private boolean isPointless(int index) {
+    return this.moves.getSource(index) == PileType.CASCADE
+            && this.moves.getDestination(index) == PileType.CASCADE
+            && this.moves.getCardIndex(index) == 0
+            && this.working.getNumCardsInCascadePile(this.moves.getDestPileNumber(index)) == 0;
+  }
+}
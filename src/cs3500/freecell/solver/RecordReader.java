@@ -0,0 +1,107 @@
+package cs3500.freecell.solver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * To represent a file of fixed size records read through memory mapping. The file is mapped in
+ * windows of at most 1 GB, so files larger than a single mapping can be read, and the records are
+ * paged in by the operating system instead of being copied onto the heap.
+ */
+final class RecordReader implements Closeable {
+  private static final long WINDOW_BYTES = 1L << 30;
+
+  private final FileChannel channel;
+  private final int recordSize;
+  private final long count;
+  private final long recordsPerWindow;
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long next;
+
+  /**
+   * Opens a file of records for reading.
+   *
+   * @param file       is the file.
+   * @param recordSize is the number of bytes of each record.
+   * @throws IOException if the file can't be opened or its size is not a whole number of records.
+   */
+  RecordReader(Path file, int recordSize) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    long size = this.channel.size();
+    if (size % recordSize != 0) {
+      this.channel.close();
+      throw new IOException("Truncated record file " + file);
+    }
+    this.recordSize = recordSize;
+    this.count = size / recordSize;
+    this.recordsPerWindow = WINDOW_BYTES / recordSize;
+    this.window = null;
+    this.windowStart = -1;
+    this.next = 0;
+  }
+
+  /**
+   * Gets the number of records in the file.
+   *
+   * @return the number of records.
+   */
+  long count() {
+    return this.count;
+  }
+
+  /**
+   * Reads the next record, in the order of the file.
+   *
+   * @param record is where the record is copied.
+   * @return false if every record was already read.
+   * @throws IOException if the file can't be mapped.
+   */
+  boolean next(byte[] record) throws IOException {
+    if (this.next == this.count) {
+      return false;
+    }
+    this.read(this.next, record);
+    this.next += 1;
+    return true;
+  }
+
+  /**
+   * Moves past records without reading them, so the next record read is further in the file.
+   *
+   * @param records is the number of records moved past. Moving past the end of the file leaves
+   *                no record to read.
+   */
+  void skip(long records) {
+    this.next = Math.min(this.count, this.next + records);
+  }
+
+  /**
+   * Reads a record.
+   *
+   * @param index  is the index of the record, starting at 0.
+   * @param record is where the record is copied.
+   * @throws IOException if the file can't be mapped.
+   */
+  void read(long index, byte[] record) throws IOException {
+    long start = index - index % this.recordsPerWindow;
+    if (start != this.windowStart) {
+      long records = Math.min(this.recordsPerWindow, this.count - start);
+      this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, start * this.recordSize,
+              records * this.recordSize);
+      this.windowStart = start;
+    }
+    this.window.position((int) ((index - start) * this.recordSize));
+    this.window.get(record, 0, this.recordSize);
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.window = null;
+    this.channel.close();
+  }
+}
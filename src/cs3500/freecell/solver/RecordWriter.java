@@ -0,0 +1,79 @@
+package cs3500.freecell.solver;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * To represent a file of fixed size records written from the first record to the last.
+ *
+ * <p>Unlike {@link RecordReader}, records are written through a buffered stream rather than a
+ * memory mapping. The number of records of a file is not known until it is closed, so a mapping
+ * would have to grow the file ahead of the records and truncate it at the end, and a mapping can't
+ * be released before it is garbage collected, so the many short runs of a search would keep their
+ * mappings long after they are deleted. A file written in order through a buffer is already
+ * written in large blocks, and is then read back through memory mapping.
+ */
+final class RecordWriter implements Closeable {
+  private final FileChannel channel;
+  private final OutputStream out;
+  private final int recordSize;
+  private long count;
+
+  /**
+   * Creates a file of records, replacing any file already there.
+   *
+   * @param file       is the file.
+   * @param recordSize is the number of bytes of each record.
+   * @throws IOException if the file can't be created.
+   */
+  RecordWriter(Path file, int recordSize) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    this.out = new BufferedOutputStream(Channels.newOutputStream(this.channel), 1 << 16);
+    this.recordSize = recordSize;
+    this.count = 0;
+  }
+
+  /**
+   * Writes a record at the end of the file.
+   *
+   * @param bytes  is the array holding the record.
+   * @param offset is where the record starts in the array.
+   * @throws IOException if the record can't be written.
+   */
+  void write(byte[] bytes, int offset) throws IOException {
+    this.out.write(bytes, offset, this.recordSize);
+    this.count += 1;
+  }
+
+  /**
+   * Gets the number of records written so far.
+   *
+   * @return the number of records.
+   */
+  long count() {
+    return this.count;
+  }
+
+  /**
+   * Writes the records still buffered and waits until every record of the file is stored on the
+   * disk, so the file survives a crash of the machine.
+   *
+   * @throws IOException if the records can't be written.
+   */
+  void force() throws IOException {
+    this.out.flush();
+    this.channel.force(false);
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.out.close();
+  }
+}
@@ -0,0 +1,54 @@
+package cs3500.freecell.solver;
+
+import cs3500.freecell.model.FreecellPosition;
+import cs3500.freecell.model.MoveBuffer;
+
+/**
+ * To represent a position reached by a search, with the move that reached it. Nodes are ordered
+ * by priority, so a priority queue of nodes gives the most promising position first.
+ */
+final class SearchNode implements Comparable<SearchNode> {
+  final FreecellPosition position;
+  final SearchNode parent;
+  final int movesMade;
+  final double priority;
+  final long order;
+  final boolean won;
+  // the move from the parent, packed by MoveBuffer.
+  final long move;
+
+  /**
+   * Makes a node of the search.
+   *
+   * @param position  is the position reached.
+   * @param parent    is the node the move was made from, null for the first position.
+   * @param movesMade is the number of moves made to reach the position.
+   * @param priority  is how promising the position is, lower is better.
+   * @param order     is when the node was made, used to break ties.
+   * @param won       is whether every card is in the foundation piles.
+   * @param move      is the move from the parent, see {@link MoveBuffer#getPacked(int)}.
+   */
+  SearchNode(FreecellPosition position, SearchNode parent, int movesMade, double priority,
+             long order, boolean won, long move) {
+    this.position = position;
+    this.parent = parent;
+    this.movesMade = movesMade;
+    this.priority = priority;
+    this.order = order;
+    this.won = won;
+    this.move = move;
+  }
+
+  @Override
+  public int compareTo(SearchNode other) {
+    int byPriority = Double.compare(this.priority, other.priority);
+    if (byPriority != 0) {
+      return byPriority;
+    }
+    // on a tie, prefer the position closer to the end of the game.
+    if (this.movesMade != other.movesMade) {
+      return other.movesMade - this.movesMade;
+    }
+    return Long.compare(this.order, other.order);
+  }
+}
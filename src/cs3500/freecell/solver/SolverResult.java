@@ -0,0 +1,78 @@
+package cs3500.freecell.solver;
+
+import cs3500.freecell.model.MoveBuffer;
+
+/**
+ * To represent the outcome of solving a game of freecell: whether it was solved, the moves that
+ * win it and how much searching it took.
+ */
+public final class SolverResult {
+
+  /**
+   * To represent how a search ended.
+   * Solved: the moves win the game. <br>
+   * Unsolvable: every position that can be reached was searched and none of them wins. <br>
+   * LimitReached: the search stopped before finding out, so the game may or may not be solvable.
+   */
+  public enum Status {
+    SOLVED, UNSOLVABLE, LIMIT_REACHED
+  }
+
+  private final Status status;
+  private final MoveBuffer moves;
+  private final long positionsSearched;
+
+  /**
+   * Makes the outcome of a search.
+   *
+   * @param status            is how the search ended.
+   * @param moves             is the winning moves, empty unless the game was solved.
+   * @param positionsSearched is the number of positions whose moves were tried.
+   */
+  SolverResult(Status status, MoveBuffer moves, long positionsSearched) {
+    this.status = status;
+    this.moves = moves;
+    this.positionsSearched = positionsSearched;
+  }
+
+  /**
+   * Gets how the search ended.
+   *
+   * @return the status of the search.
+   */
+  public Status getStatus() {
+    return this.status;
+  }
+
+  /**
+   * Checks if the game was solved.
+   *
+   * @return true if the status is {@link Status#SOLVED}.
+   */
+  public boolean isSolved() {
+    return this.status == Status.SOLVED;
+  }
+
+  /**
+   * Gets the moves that win the game, in the order they are made, starting from the position
+   * that was solved. Each call returns a new copy, so changing it does not change this result.
+   *
+   * @return the winning moves, empty if the game was not solved.
+   */
+  public MoveBuffer getMoves() {
+    MoveBuffer copy = new MoveBuffer(Math.max(1, this.moves.size()));
+    for (int i = 0; i < this.moves.size(); i++) {
+      copy.addPacked(this.moves.getPacked(i));
+    }
+    return copy;
+  }
+
+  /**
+   * Gets the number of positions whose moves were tried during the search.
+   *
+   * @return the number of positions searched.
+   */
+  public long getPositionsSearched() {
+    return this.positionsSearched;
+  }
+}
@@ -0,0 +1,231 @@
+package cs3500.freecell.solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * To represent a table of the positions reached by a search, keyed by their 64-bit keys (see
+ * {@link cs3500.freecell.model.FreecellPosition#getKey()}), and holding the depth each position
+ * was reached at, that is the number of moves made from the start of the search. The table never
+ * grows past the memory it was given: each entry takes 16 bytes in one flat array, and once the
+ * few slots a key may go in are full, the {@link ReplacementPolicy} decides which entry is lost.
+ * Losing an entry only means its position may be searched again.
+ *
+ * <p>Any number of threads can probe and fill the table at the same time without locks. Each
+ * entry is stored as two longs, the data and the key exclusive or the data, so an entry being
+ * written by another thread simply does not match its key and reads as missing, rather than
+ * giving the depth of another position. Like a lost entry, this is harmless to a search: at worst,
+ * two threads offering the same new key at the same moment are both told to search it.
+ */
+public final class TranspositionTable {
+
+  /**
+   * Value of a probe for a key that is not in the table.
+   */
+  public static final int NOT_FOUND = -1;
+
+  /**
+   * Number of slots a key may go in, starting at the slot its key hashes to.
+   */
+  private static final int PROBES = 8;
+
+  /**
+   * Number of bytes taken by each entry.
+   */
+  private static final int ENTRY_BYTES = 16;
+
+  /**
+   * Smallest memory budget of a table, enough for the slots of one key.
+   */
+  public static final long MIN_MEMORY_BUDGET = PROBES * ENTRY_BYTES;
+
+  /**
+   * To represent which entry is lost when a key is added and all of its slots are full.
+   * AlwaysReplace: the entry in the first slot of the key is replaced by the new one. <br>
+   * DepthPreferred: the entry reached with the most moves is replaced, and only if the new entry
+   * was reached with fewer. Positions close to the start lead to the most other positions, so
+   * they are worth keeping the most.
+   */
+  public enum ReplacementPolicy {
+    ALWAYS_REPLACE, DEPTH_PREFERRED
+  }
+
+  private final AtomicLongArray slots;
+  private final int mask;
+  private final int shift;
+  private final ReplacementPolicy policy;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder collisions;
+
+  /**
+   * Makes an empty table.
+   *
+   * @param memoryBudget is the number of bytes the table may take. The table holds the largest
+   *                     power of two of entries that fits.
+   * @param policy       is which entry is lost when the slots of a key are full.
+   * @throws IllegalArgumentException if the budget can't hold a few entries or the policy is null.
+   */
+  public TranspositionTable(long memoryBudget, ReplacementPolicy policy) {
+    if (memoryBudget < MIN_MEMORY_BUDGET) {
+      throw new IllegalArgumentException("Memory budget is too small.");
+    }
+    if (policy == null) {
+      throw new IllegalArgumentException("Policy can't be null.");
+    }
+    // the data and key of every entry share one array, which holds at most 2^30 longs.
+    int capacity = (int) Long.highestOneBit(Math.min(memoryBudget / ENTRY_BYTES, 1L << 29));
+    this.slots = new AtomicLongArray(2 * capacity);
+    this.mask = capacity - 1;
+    this.shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    this.policy = policy;
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.collisions = new LongAdder();
+  }
+
+  /**
+   * Gets the number of entries the table can hold.
+   *
+   * @return the capacity of the table.
+   */
+  public int getCapacity() {
+    return this.mask + 1;
+  }
+
+  /**
+   * Gets the depth a key was stored with.
+   *
+   * @param key is the key of the position.
+   * @return the depth of the position, or {@link #NOT_FOUND} if it is not in the table.
+   */
+  public int probe(long key) {
+    int home = this.home(key);
+    for (int i = 0; i < PROBES; i++) {
+      int slot = (home + i) & this.mask;
+      long data = this.slots.get(2 * slot + 1);
+      if (data == 0) {
+        break;
+      }
+      if ((this.slots.get(2 * slot) ^ data) == key) {
+        this.hits.increment();
+        return (int) (data - 1);
+      }
+      this.collisions.increment();
+    }
+    this.misses.increment();
+    return NOT_FOUND;
+  }
+
+  /**
+   * Stores a key with its depth, unless it is already stored with a depth as low.
+   *
+   * @param key   is the key of the position.
+   * @param depth is the number of moves made to reach the position.
+   * @return true if the key was not in the table or had a greater depth, so the position should
+   *         be searched.
+   * @throws IllegalArgumentException if the depth is negative.
+   */
+  public boolean offer(long key, int depth) {
+    if (depth < 0) {
+      throw new IllegalArgumentException("Depth can't be negative.");
+    }
+    // a depth is stored plus one, so a slot whose data is 0 is empty.
+    long stored = depth + 1L;
+    int home = this.home(key);
+    int victim = home;
+    long victimData = 0;
+    for (int i = 0; i < PROBES; i++) {
+      int slot = (home + i) & this.mask;
+      long data = this.slots.get(2 * slot + 1);
+      if (data == 0) {
+        if (this.slots.compareAndSet(2 * slot + 1, 0, stored)) {
+          this.slots.set(2 * slot, key ^ stored);
+          this.misses.increment();
+          return true;
+        }
+        // another thread took the slot, look at it again.
+        i -= 1;
+        continue;
+      }
+      if ((this.slots.get(2 * slot) ^ data) == key) {
+        this.hits.increment();
+        if (data <= stored) {
+          return false;
+        }
+        if (this.slots.compareAndSet(2 * slot + 1, data, stored)) {
+          this.slots.set(2 * slot, key ^ stored);
+          return true;
+        }
+        i -= 1;
+        continue;
+      }
+      this.collisions.increment();
+      if (data > victimData) {
+        victim = slot;
+        victimData = data;
+      }
+    }
+
+    this.misses.increment();
+    if (this.policy == ReplacementPolicy.ALWAYS_REPLACE) {
+      victim = home;
+    }
+    else if (victimData <= stored) {
+      return true;
+    }
+    this.slots.set(2 * victim + 1, stored);
+    this.slots.set(2 * victim, key ^ stored);
+    return true;
+  }
+
+  /**
+   * Gets the number of probes and offers that found their key.
+   *
+   * @return the number of hits.
+   */
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  /**
+   * Gets the number of probes and offers that did not find their key.
+   *
+   * @return the number of misses.
+   */
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  /**
+   * Gets the number of slots holding another key that probes and offers had to look past.
+   *
+   * @return the number of collisions.
+   */
+  public long getCollisions() {
+    return this.collisions.sum();
+  }
+
+  /**
+   * Removes every entry and resets the counters. This must not be called while other threads use
+   * the table.
+   */
+  public void clear() {
+    for (int i = 0; i < this.slots.length(); i++) {
+      this.slots.set(i, 0);
+    }
+    this.hits.reset();
+    this.misses.reset();
+    this.collisions.reset();
+  }
+
+  /**
+   * Gets the first slot a key may go in. The key is mixed first, so keys that only differ in a few
+   * bits still spread over the table.
+   */
+  private int home(long key) {
+    long mixed = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+    mixed = (mixed ^ (mixed >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    return (int) ((mixed ^ (mixed >>> 33)) >>> this.shift) & this.mask;
+  }
+}
@@ -0,0 +1,28 @@
+package cs3500.freecell.solver;
+
+import cs3500.freecell.model.FreecellPosition;
+
+/**
+ * This interface represents the positions a search has reached, with the fewest moves it took to
+ * reach each of them.
+ */
+interface VisitedPositions {
+
+  /**
+   * Records that a position was reached, unless it was already reached in as few moves.
+   *
+   * @param position  the position reached
+   * @param movesMade the number of moves made to reach it
+   * @return true if no shorter or equal way to the position was known, so it should be searched
+   */
+  boolean visit(FreecellPosition position, int movesMade);
+
+  /**
+   * Checks if a position was reached in fewer moves than given since it was visited.
+   *
+   * @param position  the position
+   * @param movesMade the number of moves it was visited with
+   * @return true if a shorter way to the position is known
+   */
+  boolean reachedSooner(FreecellPosition position, int movesMade);
+}
@@ -2,8 +2,8 @@ package cs3500.freecell.view;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.function.BiFunction;
 import java.util.function.Function;
 import cs3500.freecell.model.FreecellModelState;
 import cs3500.freecell.model.PileType;
@@ -48,16 +48,16 @@ public class FreecellTextView implements FreecellView {
       int numCascadePiles = model.getNumCascadePiles();
 
       List<String> foundationPileStrings = buildEntries(4, PileType.FOUNDATION,
-              this.model::getNumCardsInFoundationPile,
-              this.model::getFoundationCardAt);
+              this.model::getFoundationPile);
 
       List<String> cascadePileStrings = buildEntries(numCascadePiles, PileType.CASCADE,
-              this.model::getNumCardsInCascadePile,
-              this.model::getCascadeCardAt);
+              this.model::getCascadePile);
 
       List<String> openPileStrings = buildEntries(numOpenPiles, PileType.OPEN,
-              this.model::getNumCardsInOpenPile, (Integer pileIndex, Integer cardIndex) ->
-                      this.model.getOpenCardAt(pileIndex));
+              (Integer pileIndex) -> {
+                Object card = this.model.getOpenCardAt(pileIndex);
+                return card == null ? Collections.emptyList() : Collections.singletonList(card);
+              });
 
       String foundationPileFormatting = String.join(System.lineSeparator(), foundationPileStrings);
       String cascadePileFormatting = String.join(System.lineSeparator(), cascadePileStrings);
@@ -80,30 +80,22 @@ public class FreecellTextView implements FreecellView {
   /**
    * Makes a list of strings where the strings are the cards of the corresponding pile.
    *
-   * @param pileSize is the size of the pile being formatted.
+   * @param numPiles is the number of piles being formatted.
    * @param type is the type of pile that is being formatted.
-   * @param getCard is a function that gets the card at the current index.
+   * @param getPile is a function that gets the cards of the pile at the current index.
    * @return list of strings containing the cards within each pile in the correct format.
    */
-  private List<String> buildEntries(int pileSize, PileType type, Function<Integer, Integer> size,
-                                    BiFunction<Integer, Integer, ?> getCard) {
-    String fullLine = "";
+  private List<String> buildEntries(int numPiles, PileType type,
+                                    Function<Integer, List<?>> getPile) {
     List<String> output = new ArrayList<>();
-    for (int i = 0; i < pileSize; i++) {
-      List<String> entry = new ArrayList<>();
-      int numCardsInPile = size.apply(i);
-      String root = detectType(type) + (i + 1) + ":";
+    for (int i = 0; i < numPiles; i++) {
+      StringBuilder fullLine = new StringBuilder(detectType(type)).append(i + 1).append(":");
+      List<?> pile = getPile.apply(i);
 
-      for (int j = 0; j < numCardsInPile; j++) {
-        entry.add(getCard.apply(i, j).toString());
+      for (int j = 0; j < pile.size(); j++) {
+        fullLine.append(j == 0 ? " " : ", ").append(pile.get(j));
       }
-      if (entry.size() == 0) {
-        fullLine = root;
-      }
-      else {
-        fullLine = root + " " + String.join(", ", entry);
-      }
-      output.add(fullLine);
+      output.add(fullLine.toString());
     }
 
     return output;
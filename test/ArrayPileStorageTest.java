@@ -0,0 +1,177 @@
+import org.junit.Test;
+
+import java.util.Random;
+
+import cs3500.freecell.model.ArrayPileStorage;
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.Suits;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * To test the array storage used by the freecell models to hold their piles.
+ */
+public class ArrayPileStorageTest {
+
+  private final int aceHearts = Card.of(Suits.HEART, 1).getIndex();
+  private final int twoHearts = Card.of(Suits.HEART, 2).getIndex();
+  private final int threeClubs = Card.of(Suits.CLUBS, 3).getIndex();
+  private final int twoSpades = Card.of(Suits.SPADES, 2).getIndex();
+
+  @Test
+  public void newStorageIsEmpty() {
+    ArrayPileStorage piles = new ArrayPileStorage(8, 4);
+    assertEquals(8, piles.getNumCascades());
+    assertEquals(4, piles.getNumOpens());
+    assertEquals(8, piles.getNumEmptyCascades());
+    assertEquals(4, piles.getNumEmptyOpens());
+    assertEquals(ArrayPileStorage.EMPTY, piles.getCascadeTop(0));
+    assertEquals(ArrayPileStorage.EMPTY, piles.getOpenCard(3));
+    assertEquals(ArrayPileStorage.EMPTY, piles.getFoundationTop(0));
+    assertEquals(false, piles.isComplete());
+  }
+
+  @Test
+  public void addAndRemoveCascade() {
+    ArrayPileStorage piles = new ArrayPileStorage(4, 1);
+    piles.addToCascade(1, threeClubs);
+    piles.addToCascade(1, twoHearts);
+    assertEquals(2, piles.getNumCardsInCascade(1));
+    assertEquals(twoHearts, piles.getCascadeTop(1));
+    assertEquals(threeClubs, piles.getCascadeCard(1, 0));
+    assertEquals(3, piles.getNumEmptyCascades());
+    assertEquals(twoHearts, piles.removeFromCascade(1));
+    assertEquals(threeClubs, piles.removeFromCascade(1));
+    assertEquals(4, piles.getNumEmptyCascades());
+  }
+
+  @Test
+  public void dealMatchesAddingOneCardAtATime() {
+    byte[] deck = new byte[Card.DECK_SIZE];
+    ArrayPileStorage expected = new ArrayPileStorage(8, 4);
+    for (int i = 0; i < deck.length; i++) {
+      deck[i] = (byte) (deck.length - 1 - i);
+      expected.addToCascade(i % 8, deck[i]);
+    }
+    ArrayPileStorage piles = new ArrayPileStorage(8, 4);
+    piles.addToOpen(0, twoSpades);
+    piles.deal(deck, deck.length);
+    assertEquals(expected.getHash(), piles.getHash());
+    assertEquals(4, piles.getNumEmptyOpens());
+    assertEquals(0, piles.getNumEmptyCascades());
+    assertEquals(7, piles.getNumCardsInCascade(0));
+    assertEquals(6, piles.getNumCardsInCascade(7));
+    assertEquals(51, piles.getCascadeCard(0, 0));
+    assertEquals(0, piles.getCascadeTop(3));
+  }
+
+  @Test
+  public void moveCascadeCardsKeepsOrder() {
+    ArrayPileStorage piles = new ArrayPileStorage(4, 1);
+    piles.addToCascade(0, threeClubs);
+    piles.addToCascade(0, twoHearts);
+    piles.moveCascadeCards(0, 0, 2);
+    assertEquals(0, piles.getNumCardsInCascade(0));
+    assertEquals(2, piles.getNumCardsInCascade(2));
+    assertEquals(threeClubs, piles.getCascadeCard(2, 0));
+    assertEquals(twoHearts, piles.getCascadeCard(2, 1));
+    assertEquals(3, piles.getNumEmptyCascades());
+  }
+
+  @Test
+  public void addAndRemoveOpen() {
+    ArrayPileStorage piles = new ArrayPileStorage(4, 2);
+    piles.addToOpen(1, twoSpades);
+    assertEquals(twoSpades, piles.getOpenCard(1));
+    assertEquals(1, piles.getNumEmptyOpens());
+    assertEquals(twoSpades, piles.removeFromOpen(1));
+    assertEquals(ArrayPileStorage.EMPTY, piles.getOpenCard(1));
+    assertEquals(2, piles.getNumEmptyOpens());
+  }
+
+  @Test
+  public void addAndRemoveFoundation() {
+    ArrayPileStorage piles = new ArrayPileStorage(4, 1);
+    piles.addToFoundation(2, aceHearts);
+    piles.addToFoundation(2, twoHearts);
+    assertEquals(2, piles.getNumCardsInFoundation(2));
+    assertEquals(Suits.HEART.getIndex(), piles.getFoundationSuit(2));
+    assertEquals(twoHearts, piles.getFoundationTop(2));
+    assertEquals(twoHearts, piles.removeFromFoundation(2));
+    assertEquals(aceHearts, piles.removeFromFoundation(2));
+    assertEquals(ArrayPileStorage.EMPTY, piles.getFoundationSuit(2));
+  }
+
+  @Test
+  public void completeWhenAllCardsInFoundations() {
+    ArrayPileStorage piles = new ArrayPileStorage(4, 1);
+    for (int i = 0; i < Card.DECK_SIZE; i++) {
+      piles.addToFoundation(i / 13, i);
+    }
+    assertEquals(true, piles.isComplete());
+    piles.clear();
+    assertEquals(false, piles.isComplete());
+    assertEquals(0, piles.getNumCardsInFoundation(0));
+  }
+
+  /**
+   * Finds the length of the build at the end of a cascade pile by walking the pile.
+   */
+  private int naiveRunLength(ArrayPileStorage piles, int pile) {
+    int size = piles.getNumCardsInCascade(pile);
+    int length = size == 0 ? 0 : 1;
+    while (length < size && Card.canStackOn(piles.getCascadeCard(pile, size - length),
+            piles.getCascadeCard(pile, size - length - 1))) {
+      length += 1;
+    }
+    return length;
+  }
+
+  @Test
+  public void runLengthFollowsChanges() {
+    ArrayPileStorage piles = new ArrayPileStorage(4, 1);
+    assertEquals(0, piles.getCascadeRunLength(0));
+    piles.addToCascade(0, threeClubs);
+    piles.addToCascade(0, twoHearts);
+    assertEquals(2, piles.getCascadeRunLength(0));
+    piles.addToCascade(0, twoSpades);
+    assertEquals(1, piles.getCascadeRunLength(0));
+    piles.removeFromCascade(0);
+    assertEquals(2, piles.getCascadeRunLength(0));
+    piles.moveCascadeCards(0, 1, 1);
+    assertEquals(1, piles.getCascadeRunLength(0));
+    assertEquals(1, piles.getCascadeRunLength(1));
+  }
+
+  @Test
+  public void runLengthMatchesWalkingThePile() {
+    Random random = new Random(3);
+    byte[] deck = new byte[Card.DECK_SIZE];
+    for (int i = 0; i < deck.length; i++) {
+      deck[i] = (byte) i;
+    }
+    for (int game = 0; game < 20; game++) {
+      for (int i = deck.length - 1; i > 0; i--) {
+        int j = random.nextInt(i + 1);
+        byte swap = deck[i];
+        deck[i] = deck[j];
+        deck[j] = swap;
+      }
+      ArrayPileStorage piles = new ArrayPileStorage(6, 1);
+      piles.deal(deck, deck.length);
+      ArrayPileStorage fork = piles.fork();
+      for (int step = 0; step < 200; step++) {
+        int from = random.nextInt(6);
+        int to = random.nextInt(6);
+        int size = piles.getNumCardsInCascade(from);
+        if (from != to && size > 0) {
+          piles.moveCascadeCards(from, random.nextInt(size), to);
+        }
+        for (int pile = 0; pile < 6; pile++) {
+          assertEquals(naiveRunLength(piles, pile), piles.getCascadeRunLength(pile));
+          assertEquals(naiveRunLength(fork, pile), fork.getCascadeRunLength(pile));
+        }
+      }
+    }
+  }
+}
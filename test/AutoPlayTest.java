@@ -0,0 +1,125 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.FreecellModel;
+import cs3500.freecell.model.MoveResult;
+import cs3500.freecell.model.PileType;
+import cs3500.freecell.model.SimpleFreecellModel;
+import cs3500.freecell.model.Suits;
+import cs3500.freecell.model.multimove.MultiMoveSimpleFreecellModel;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * To test playing safe cards to the foundation piles automatically.
+ */
+public class AutoPlayTest {
+
+  /**
+   * Makes a deck that deals the given cascade piles, all of the same size, when dealt into as many
+   * cascade piles.
+   *
+   * @param piles is the cards of every pile, from the first card dealt to the last.
+   * @return the deck.
+   */
+  private List<Card> deckOf(List<List<Card>> piles) {
+    List<Card> deck = new ArrayList<>();
+    for (int depth = 0; depth < piles.get(0).size(); depth++) {
+      for (List<Card> pile : piles) {
+        deck.add(pile.get(depth));
+      }
+    }
+    return deck;
+  }
+
+  /**
+   * Makes the cards of a suit from the highest rank down to the lowest.
+   */
+  private List<Card> descending(Suits suit, int highest, int lowest) {
+    List<Card> cards = new ArrayList<>();
+    for (int rank = highest; rank >= lowest; rank--) {
+      cards.add(new Card(suit, rank));
+    }
+    return cards;
+  }
+
+  /**
+   * Makes a deck where the ace of spades is buried under the hearts, so only some of the cards on
+   * top can be played safely.
+   */
+  private List<Card> buriedAceDeck() {
+    List<List<Card>> piles = new ArrayList<>();
+    List<Card> first = new ArrayList<>();
+    first.add(new Card(Suits.SPADES, 1));
+    first.addAll(this.descending(Suits.HEART, 13, 2));
+    piles.add(first);
+    piles.add(this.descending(Suits.CLUBS, 13, 1));
+    piles.add(this.descending(Suits.DIAMOND, 13, 1));
+    List<Card> last = this.descending(Suits.SPADES, 13, 2);
+    last.add(new Card(Suits.HEART, 1));
+    piles.add(last);
+    return this.deckOf(piles);
+  }
+
+  /**
+   * Makes a deck that deals every suit into its own cascade pile, ace on top.
+   */
+  private List<Card> sortedDeck() {
+    List<List<Card>> piles = new ArrayList<>();
+    for (Suits suit : new Suits[]{Suits.DIAMOND, Suits.CLUBS, Suits.SPADES, Suits.HEART}) {
+      piles.add(this.descending(suit, 13, 1));
+    }
+    return this.deckOf(piles);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void autoPlayBeforeStart() {
+    new SimpleFreecellModel().autoPlay();
+  }
+
+  @Test
+  public void playsOnlySafeCards() {
+    FreecellModel<Card> model = new SimpleFreecellModel();
+    model.startGame(this.buriedAceDeck(), 4, 1, false);
+    // the three aces on top, then the two of clubs, since both red aces are played.
+    assertEquals(4, model.autoPlay());
+    assertEquals(11, model.getNumCardsInCascadePile(1));
+    assertEquals(12, model.getNumCardsInCascadePile(2));
+    assertEquals(12, model.getNumCardsInCascadePile(3));
+    assertEquals(13, model.getNumCardsInCascadePile(0));
+    assertEquals(false, model.isGameOver());
+    // the two of hearts could be played, but a black ace may still need it.
+    assertEquals(MoveResult.SUCCESS,
+            model.tryMove(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 2));
+  }
+
+  @Test
+  public void nothingSafeToPlay() {
+    FreecellModel<Card> model = new SimpleFreecellModel();
+    model.startGame(model.getDeck(), 4, 1, false);
+    long hash = model.getPositionHash();
+    assertEquals(0, model.autoPlay());
+    assertEquals(hash, model.getPositionHash());
+  }
+
+  @Test
+  public void finishesSortedGame() {
+    FreecellModel<Card> model = new MultiMoveSimpleFreecellModel();
+    model.startGame(this.sortedDeck(), 4, 1, false);
+    assertEquals(52, model.autoPlay());
+    assertEquals(true, model.isGameOver());
+  }
+
+  @Test
+  public void autoPlayedCardsCanBeUndone() {
+    FreecellModel<Card> model = new SimpleFreecellModel();
+    model.startGame(this.buriedAceDeck(), 4, 1, false);
+    model.autoPlay();
+    model.undo();
+    assertEquals(new Card(Suits.CLUBS, 2), model.getCascadeCardAt(1, 11));
+    assertEquals(12, model.getNumCardsInCascadePile(1));
+  }
+}
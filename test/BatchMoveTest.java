@@ -0,0 +1,78 @@
+import org.junit.Test;
+
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.FreecellModel;
+import cs3500.freecell.model.FreecellPosition;
+import cs3500.freecell.model.MoveBuffer;
+import cs3500.freecell.model.PileType;
+import cs3500.freecell.model.SimpleFreecellModel;
+import cs3500.freecell.model.multimove.MultiMoveSimpleFreecellModel;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * To test making several moves of a game of freecell as a single change.
+ */
+public class BatchMoveTest {
+
+  @Test(expected = IllegalStateException.class)
+  public void batchBeforeStart() {
+    new SimpleFreecellModel().applyMoves(new MoveBuffer());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullBatch() {
+    FreecellModel<Card> model = new SimpleFreecellModel();
+    model.startGame(model.getDeck(), 4, 2, false);
+    model.applyMoves(null);
+  }
+
+  @Test
+  public void emptyBatch() {
+    FreecellModel<Card> model = new SimpleFreecellModel();
+    model.startGame(model.getDeck(), 4, 2, false);
+    assertEquals(-1, model.applyMoves(new MoveBuffer()));
+  }
+
+  @Test
+  public void batchMakesEveryMove() {
+    FreecellModel<Card> model = new SimpleFreecellModel();
+    model.startGame(model.getDeck(), 4, 2, false);
+    MoveBuffer moves = new MoveBuffer();
+    moves.add(PileType.CASCADE, 0, 12, PileType.OPEN, 0);
+    moves.add(PileType.CASCADE, 1, 12, PileType.OPEN, 1);
+    assertEquals(-1, model.applyMoves(moves));
+    assertEquals(12, model.getNumCardsInCascadePile(0));
+    assertEquals(12, model.getNumCardsInCascadePile(1));
+    assertEquals(1, model.getNumCardsInOpenPile(1));
+    model.undo();
+    assertEquals(0, model.getNumCardsInOpenPile(1));
+  }
+
+  @Test
+  public void failedBatchRollsBack() {
+    SimpleFreecellModel model = new MultiMoveSimpleFreecellModel();
+    model.startGame(model.getDeck(), 4, 3, false);
+    model.move(PileType.CASCADE, 3, 12, PileType.OPEN, 1);
+    model.move(PileType.CASCADE, 2, 12, PileType.OPEN, 0);
+    model.undo();
+    FreecellPosition before = model.getPosition();
+    long hash = model.getPositionHash();
+
+    MoveBuffer moves = new MoveBuffer();
+    moves.add(PileType.CASCADE, 0, 12, PileType.OPEN, 0);
+    moves.add(PileType.CASCADE, 1, 12, PileType.OPEN, 2);
+    moves.add(PileType.CASCADE, 1, 11, PileType.OPEN, 1);
+    moves.add(PileType.CASCADE, 2, 12, PileType.OPEN, 0);
+    assertEquals(2, model.applyMoves(moves));
+    assertEquals(before, model.getPosition());
+    assertEquals(hash, model.getPositionHash());
+
+    // the move undone before the batch can still be redone.
+    model.redo();
+    assertEquals(12, model.getNumCardsInCascadePile(2));
+    model.undo();
+    model.undo();
+    assertEquals(13, model.getNumCardsInCascadePile(3));
+  }
+}
@@ -4,6 +4,7 @@ import cs3500.freecell.model.Card;
 import cs3500.freecell.model.Suits;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 /**
  * To test the card class and its functionalities.
@@ -98,4 +99,65 @@ public class CardTest {
     assertEquals(true, this.diamond_1.sameColor(this.hearts_Q));
     assertEquals(false, this.diamond_10.sameColor(this.clubs_J));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testGetIndex() {
+    assertEquals(13, this.diamond_1.getIndex());
+    assertEquals(22, this.diamond_10.getIndex());
+    assertEquals(12, this.hearts_K.getIndex());
+    assertEquals(36, this.clubs_J.getIndex());
+    assertEquals(50, this.spades_Q.getIndex());
+    assertEquals(-1, this.rankGreater.getIndex());
+    assertEquals(-1, this.rankLess.getIndex());
+  }
+
+  @Test
+  public void testCanStackOn() {
+    assertEquals(true, Card.canStackOn(this.diamond_10.getIndex(), this.clubs_J.getIndex()));
+    assertEquals(true, Card.canStackOn(this.clubs_J.getIndex(), this.hearts_Q.getIndex()));
+    assertEquals(false, Card.canStackOn(this.clubs_J.getIndex(), this.spades_Q.getIndex()));
+    assertEquals(false, Card.canStackOn(this.hearts_Q.getIndex(), this.hearts_K.getIndex()));
+    assertEquals(false, Card.canStackOn(this.clubs_J.getIndex(), this.diamond_10.getIndex()));
+  }
+
+  @Test
+  public void testCanFollowOnFoundation() {
+    assertEquals(true, Card.canFollowOnFoundation(this.hearts_K.getIndex(),
+            this.hearts_Q.getIndex()));
+    assertEquals(false, Card.canFollowOnFoundation(this.hearts_Q.getIndex(),
+            this.hearts_K.getIndex()));
+    assertEquals(false, Card.canFollowOnFoundation(this.spades_Q.getIndex(),
+            this.hearts_K.getIndex()));
+  }
+
+  @Test
+  public void testSuitColor() {
+    assertEquals(true, Suits.HEART.isRed());
+    assertEquals(true, Suits.DIAMOND.isRed());
+    assertEquals(false, Suits.CLUBS.isRed());
+    assertEquals(false, Suits.SPADES.isRed());
+  }
+
+  @Test
+  public void testOfReturnsSharedInstance() {
+    assertSame(Card.of(Suits.DIAMOND, 1), Card.of(Suits.DIAMOND, 1));
+    assertEquals(this.diamond_1, Card.of(Suits.DIAMOND, 1));
+    assertEquals(this.diamond_1.hashCode(), Card.of(Suits.DIAMOND, 1).hashCode());
+    assertSame(Card.of(Suits.SPADES, 12), Card.fromIndex(this.spades_Q.getIndex()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void disallowOfInvalidRank() {
+    Card.of(Suits.HEART, 14);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void disallowOfNullSuit() {
+    Card.of(null, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void disallowFromInvalidIndex() {
+    Card.fromIndex(52);
+  }
+}
@@ -0,0 +1,141 @@
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.FreecellModel;
+import cs3500.freecell.model.MoveBuffer;
+import cs3500.freecell.model.MoveResult;
+import cs3500.freecell.model.PileType;
+import cs3500.freecell.model.SimpleFreecellModel;
+import cs3500.freecell.model.Suits;
+import cs3500.freecell.model.concurrent.ConcurrentFreecellModel;
+import cs3500.freecell.model.multimove.MultiMoveSimpleFreecellModel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * To test the thread safe freecell game. Checks that it follows the rules of the game it wraps and
+ * that readers always see a consistent board while another thread makes moves.
+ */
+public class ConcurrentFreecellModelTest {
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullGame() {
+    new ConcurrentFreecellModel(null);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void moveBeforeStart() {
+    new ConcurrentFreecellModel(new SimpleFreecellModel())
+            .move(PileType.CASCADE, 0, 0, PileType.OPEN, 0);
+  }
+
+  @Test
+  public void followsWrappedRules() {
+    ConcurrentFreecellModel model = new ConcurrentFreecellModel(new SimpleFreecellModel());
+    model.startGame(model.getDeck(), 4, 1, false);
+    assertEquals(MoveResult.SUCCESS, model.tryMove(PileType.CASCADE, 0, 12, PileType.OPEN, 0));
+    assertEquals(MoveResult.OPEN_PILE_FULL,
+            model.tryMove(PileType.CASCADE, 1, 12, PileType.OPEN, 0));
+    assertEquals(12, model.getNumCardsInCascadePile(0));
+    assertEquals(new Card(Suits.HEART, 10), model.getOpenCardAt(0));
+    model.undo();
+    assertEquals(13, model.getNumCardsInCascadePile(0));
+    model.redo();
+    assertEquals(model.getPosition().getOpenCard(0), model.getOpenCardAt(0).getIndex());
+  }
+
+  @Test
+  public void forkIsIndependent() {
+    ConcurrentFreecellModel model = new ConcurrentFreecellModel(
+            new MultiMoveSimpleFreecellModel());
+    model.startGame(model.getDeck(), 4, 1, false);
+    SimpleFreecellModel fork = model.fork();
+    assertEquals(MultiMoveSimpleFreecellModel.class, fork.getClass());
+    fork.move(PileType.CASCADE, 0, 12, PileType.OPEN, 0);
+    assertEquals(13, model.getNumCardsInCascadePile(0));
+    model.move(PileType.CASCADE, 1, 12, PileType.OPEN, 0);
+    assertEquals(13, fork.getNumCardsInCascadePile(1));
+  }
+
+  @Test
+  public void readerCantMove() {
+    ConcurrentFreecellModel model = new ConcurrentFreecellModel(new SimpleFreecellModel());
+    model.startGame(model.getDeck(), 4, 1, false);
+    assertFalse(model.read(state -> state instanceof FreecellModel));
+    assertEquals(13, (int) model.read(state -> state.getNumCardsInCascadePile(0)));
+  }
+
+  @Test
+  public void legalMovesOfSharedGame() {
+    ConcurrentFreecellModel model = new ConcurrentFreecellModel(new SimpleFreecellModel());
+    model.startGame(model.getDeck(), 4, 1, false);
+    SimpleFreecellModel plain = new SimpleFreecellModel();
+    plain.startGame(plain.getDeck(), 4, 1, false);
+    MoveBuffer moves = new MoveBuffer();
+    assertEquals(plain.getLegalMoves(new MoveBuffer()), model.getLegalMoves(moves));
+    assertEquals(moves.size(), model.getLegalMoves(moves));
+  }
+
+  @Test
+  public void readSeesWholeDeck() {
+    ConcurrentFreecellModel model = new ConcurrentFreecellModel(
+            new MultiMoveSimpleFreecellModel());
+    model.startGame(model.getDeck(), 8, 4, false);
+    int cards = model.read(state -> {
+      int count = 0;
+      for (int i = 0; i < state.getNumCascadePiles(); i++) {
+        count += state.getNumCardsInCascadePile(i);
+      }
+      return count;
+    });
+    assertEquals(52, cards);
+  }
+
+  @Test
+  public void readersSeeConsistentBoardDuringMoves() throws InterruptedException {
+    ConcurrentFreecellModel model = new ConcurrentFreecellModel(new SimpleFreecellModel());
+    model.startGame(model.getDeck(), 4, 4, false);
+    AtomicBoolean done = new AtomicBoolean(false);
+    AtomicInteger badReads = new AtomicInteger(0);
+
+    Thread[] readers = new Thread[3];
+    for (int r = 0; r < readers.length; r++) {
+      readers[r] = new Thread(() -> {
+        while (!done.get()) {
+          int cards = model.read(state -> {
+            int count = 0;
+            for (int i = 0; i < state.getNumCascadePiles(); i++) {
+              count += state.getNumCardsInCascadePile(i);
+            }
+            for (int i = 0; i < state.getNumOpenPiles(); i++) {
+              count += state.getNumCardsInOpenPile(i);
+            }
+            return count;
+          });
+          if (cards != 52) {
+            badReads.incrementAndGet();
+          }
+        }
+      });
+      readers[r].start();
+    }
+
+    for (int n = 0; n < 20000; n++) {
+      for (int i = 0; i < 4; i++) {
+        model.move(PileType.CASCADE, i, 12, PileType.OPEN, i);
+      }
+      for (int i = 0; i < 4; i++) {
+        model.undo();
+      }
+    }
+    done.set(true);
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    assertEquals(0, badReads.get());
+  }
+}
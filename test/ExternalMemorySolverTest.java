@@ -0,0 +1,181 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import cs3500.freecell.model.FreecellDeals;
+import cs3500.freecell.model.FreecellModelCreator;
+import cs3500.freecell.model.MoveBuffer;
+import cs3500.freecell.model.SimpleFreecellModel;
+import cs3500.freecell.model.multimove.MultiMoveSimpleFreecellModel;
+import cs3500.freecell.solver.ExternalMemorySolver;
+import cs3500.freecell.solver.FreecellSolver;
+import cs3500.freecell.solver.SolverResult;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * To test solving games of freecell with the search kept on disk.
+ */
+public class ExternalMemorySolverTest {
+  private Path directory;
+
+  @Before
+  public void init() throws IOException {
+    this.directory = Files.createTempDirectory("freecell-search");
+  }
+
+  @After
+  public void cleanUp() throws IOException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory)) {
+      for (Path file : files) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(this.directory);
+  }
+
+  /**
+   * Makes a game of deal 1 that is 30 moves away from being won.
+   */
+  private SimpleFreecellModel nearlyWonGame() {
+    MoveBuffer solution = new FreecellSolver().solve(FreecellModelCreator.GameType.MULTIMOVE,
+            FreecellDeals.numberedDeal(1), 8, 4).getMoves();
+    SimpleFreecellModel game = new MultiMoveSimpleFreecellModel();
+    game.startGame(FreecellDeals.numberedDeal(1), 8, 4, false);
+    MoveReplay.replay(game, solution, solution.size() - 30);
+    return game;
+  }
+
+  private boolean isEmpty(Path directory) throws IOException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      return !files.iterator().hasNext();
+    }
+  }
+
+  @Test
+  public void testSolve() throws IOException {
+    SimpleFreecellModel game = this.nearlyWonGame();
+    SolverResult result = new ExternalMemorySolver(this.directory, 1 << 20, 100_000).solve(game);
+    assertTrue(result.isSolved());
+    MoveReplay.replay(game, result.getMoves());
+    assertTrue(game.isGameOver());
+    // the files are deleted once the game is solved.
+    assertTrue(this.isEmpty(this.directory));
+  }
+
+  @Test
+  public void testSmallHeapBudget() throws IOException {
+    SolverResult large = new ExternalMemorySolver(this.directory, 1 << 20, 100_000)
+            .solve(this.nearlyWonGame());
+    // the positions reached from a layer are written in many small runs.
+    SolverResult small = new ExternalMemorySolver(this.directory,
+            ExternalMemorySolver.MIN_HEAP_BUDGET, 100_000).solve(this.nearlyWonGame());
+    assertTrue(small.isSolved());
+    assertEquals(large.getPositionsSearched(), small.getPositionsSearched());
+    assertEquals(large.getMoves().size(), small.getMoves().size());
+  }
+
+  @Test
+  public void testResume() throws IOException {
+    SolverResult whole = new ExternalMemorySolver(this.directory, 1 << 20, 100_000)
+            .solve(this.nearlyWonGame());
+
+    SolverResult stopped = new ExternalMemorySolver(this.directory, 1 << 20, 100)
+            .solve(this.nearlyWonGame());
+    assertEquals(SolverResult.Status.LIMIT_REACHED, stopped.getStatus());
+    assertEquals(100, stopped.getPositionsSearched());
+    assertFalse(this.isEmpty(this.directory));
+
+    SimpleFreecellModel game = this.nearlyWonGame();
+    SolverResult resumed = new ExternalMemorySolver(this.directory, 1 << 20, 100_000)
+            .solve(game);
+    assertTrue(resumed.isSolved());
+    // the positions searched before it stopped are not searched again.
+    assertEquals(whole.getPositionsSearched(), resumed.getPositionsSearched());
+    MoveReplay.replay(game, resumed.getMoves());
+    assertTrue(game.isGameOver());
+  }
+
+  @Test
+  public void testResumeWithSameLimit() throws IOException {
+    SolverResult whole = new ExternalMemorySolver(this.directory, 1 << 20, 100_000)
+            .solve(this.nearlyWonGame());
+
+    // every call searches up to the limit, starting partway through a layer.
+    ExternalMemorySolver solver = new ExternalMemorySolver(this.directory,
+            ExternalMemorySolver.MIN_HEAP_BUDGET, 37);
+    SimpleFreecellModel game = this.nearlyWonGame();
+    SolverResult result = solver.solve(game);
+    int calls = 1;
+    while (result.getStatus() == SolverResult.Status.LIMIT_REACHED) {
+      assertEquals(37L * calls, result.getPositionsSearched());
+      result = solver.solve(game);
+      calls += 1;
+    }
+    assertTrue(calls > 2);
+    assertTrue(result.isSolved());
+    assertEquals(whole.getPositionsSearched(), result.getPositionsSearched());
+    assertEquals(whole.getMoves().size(), result.getMoves().size());
+    MoveReplay.replay(game, result.getMoves());
+    assertTrue(game.isGameOver());
+    assertTrue(this.isEmpty(this.directory));
+  }
+
+  @Test
+  public void testOtherGameStartsOver() throws IOException {
+    SolverResult stopped = new ExternalMemorySolver(this.directory, 1 << 20, 100)
+            .solve(this.nearlyWonGame());
+    assertEquals(SolverResult.Status.LIMIT_REACHED, stopped.getStatus());
+
+    SimpleFreecellModel other = new SimpleFreecellModel();
+    SolverResult result = new ExternalMemorySolver(this.directory, 1 << 20, 100_000)
+            .solve(FreecellModelCreator.GameType.SINGLEMOVE, other.getDeck(), 4, 4);
+    assertEquals(SolverResult.Status.UNSOLVABLE, result.getStatus());
+    assertTrue(this.isEmpty(this.directory));
+  }
+
+  @Test
+  public void testSolveWonGame() throws IOException {
+    SimpleFreecellModel game = new SimpleFreecellModel();
+    game.startGame(game.getDeck(), 52, 1, false);
+    SolverResult result = new ExternalMemorySolver(this.directory, 1 << 20, 10).solve(game);
+    assertTrue(result.isSolved());
+    assertEquals(0, result.getPositionsSearched());
+    // every card is played to the foundation piles automatically.
+    assertEquals(52, result.getMoves().size());
+    MoveReplay.replay(game, result.getMoves(), 52);
+    assertTrue(game.isGameOver());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSolveGameNotStarted() throws IOException {
+    new ExternalMemorySolver(this.directory, 1 << 20, 10).solve(new SimpleFreecellModel());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSolveNullGame() throws IOException {
+    new ExternalMemorySolver(this.directory, 1 << 20, 10).solve(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullDirectory() {
+    new ExternalMemorySolver(null, 1 << 20, 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testHeapBudgetTooSmall() {
+    new ExternalMemorySolver(this.directory, ExternalMemorySolver.MIN_HEAP_BUDGET - 1, 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoPositions() {
+    new ExternalMemorySolver(this.directory, 1 << 20, 0);
+  }
+}
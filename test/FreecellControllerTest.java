@@ -835,4 +835,22 @@ public class FreecellControllerTest {
     controller.playGame(orderedDeck, 4, 1, false);
     assertEquals(true, model.isGameOver());
   }
+
+  @Test
+  public void autoPlayFinishesGame() {
+    List<Card> deck = new ArrayList<>();
+    for (int rank = 13; rank >= 1; rank--) {
+      deck.add(new Card(Suits.DIAMOND, rank));
+      deck.add(new Card(Suits.CLUBS, rank));
+      deck.add(new Card(Suits.SPADES, rank));
+      deck.add(new Card(Suits.HEART, rank));
+    }
+    Appendable text = new StringBuilder();
+    FreecellModel<Card> model = new SimpleFreecellModel();
+    SimpleFreecellController controller = new SimpleFreecellController(model,
+            new StringReader("C1 13 F1 q"), text, true);
+    controller.playGame(deck, 4, 1, false);
+    assertEquals(true, model.isGameOver());
+    assertEquals(true, text.toString().endsWith("Game over."));
+  }
 }
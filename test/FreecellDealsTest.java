@@ -0,0 +1,92 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.FreecellDeals;
+import cs3500.freecell.model.FreecellModel;
+import cs3500.freecell.model.SimpleFreecellModel;
+import cs3500.freecell.model.Suits;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * To test the reproducible decks of freecell games.
+ */
+public class FreecellDealsTest {
+
+  @Test
+  public void numberedDealOne() {
+    List<Card> deck = FreecellDeals.numberedDeal(1);
+    assertEquals(Arrays.asList(new Card(Suits.DIAMOND, 11), new Card(Suits.DIAMOND, 2),
+            new Card(Suits.HEART, 9), new Card(Suits.CLUBS, 11), new Card(Suits.DIAMOND, 5),
+            new Card(Suits.HEART, 7), new Card(Suits.CLUBS, 7), new Card(Suits.HEART, 5)),
+            deck.subList(0, 8));
+  }
+
+  @Test
+  public void numberedDealIntoEightCascades() {
+    FreecellModel<Card> model = new SimpleFreecellModel();
+    model.startGame(FreecellDeals.numberedDeal(617), 8, 4, false);
+    assertEquals(new Card(Suits.DIAMOND, 7), model.getCascadeCardAt(0, 0));
+    assertEquals(new Card(Suits.HEART, 1), model.getCascadeCardAt(7, 0));
+    assertEquals(new Card(Suits.DIAMOND, 10), model.getCascadeCardAt(0, 1));
+    assertEquals(new Card(Suits.HEART, 13), model.getCascadeCardAt(7, 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void numberedDealZero() {
+    FreecellDeals.numberedDeal(0);
+  }
+
+  @Test
+  public void seededDealIsRepeatable() {
+    assertEquals(FreecellDeals.seededDeal(42), FreecellDeals.seededDeal(42));
+    assertNotEquals(FreecellDeals.seededDeal(42), FreecellDeals.seededDeal(43));
+  }
+
+  @Test
+  public void dealsAreFullDecks() {
+    for (int i = 1; i <= 100; i++) {
+      assertEquals(52, new HashSet<>(FreecellDeals.numberedDeal(i)).size());
+      assertEquals(52, new HashSet<>(FreecellDeals.seededDeal(i)).size());
+    }
+  }
+
+  @Test
+  public void numberedDealsInOrder() {
+    List<List<Card>> deals = FreecellDeals.numberedDeals(5, 8).collect(Collectors.toList());
+    assertEquals(4, deals.size());
+    assertEquals(FreecellDeals.numberedDeal(5), deals.get(0));
+    assertEquals(FreecellDeals.numberedDeal(8), deals.get(3));
+  }
+
+  @Test
+  public void parallelSeededDealsMatchSequential() {
+    List<List<Card>> sequential = FreecellDeals.seededDeals(7, 2000)
+            .collect(Collectors.toList());
+    List<List<Card>> parallel = FreecellDeals.seededDeals(7, 2000).parallel()
+            .collect(Collectors.toList());
+    assertEquals(sequential, parallel);
+    assertEquals(FreecellDeals.seededDeal(7 + 1999), parallel.get(1999));
+  }
+
+  @Test
+  public void parallelDealsStartGames() {
+    long started = FreecellDeals.seededDeals(0, 5000).parallel().filter(deck -> {
+      FreecellModel<Card> model = new SimpleFreecellModel();
+      model.startGame(deck, 8, 4, false);
+      return model.getNumCardsInCascadePile(0) == 7;
+    }).count();
+    assertEquals(5000, started);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeDealCount() {
+    FreecellDeals.seededDeals(0, -1);
+  }
+}
@@ -3,7 +3,10 @@ import org.junit.Test;
 import cs3500.freecell.model.Card;
 import cs3500.freecell.model.FreecellModel;
 import cs3500.freecell.model.FreecellModelCreator;
+import cs3500.freecell.model.PileType;
 import cs3500.freecell.model.SimpleFreecellModel;
+import cs3500.freecell.model.Suits;
+import cs3500.freecell.model.concurrent.ConcurrentFreecellModel;
 import cs3500.freecell.model.multimove.MultiMoveSimpleFreecellModel;
 
 import static org.junit.Assert.assertEquals;
@@ -34,4 +37,19 @@ public class FreecellModelCreatorTest {
   public void NullType() {
     FreecellModel<Card> model = FreecellModelCreator.create(null);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void ConcurrentGameType() {
+    FreecellModel<Card> model = FreecellModelCreator.createConcurrent(multi);
+    assertEquals(true, model instanceof ConcurrentFreecellModel);
+    model.startGame(model.getDeck(), 8, 1, false);
+    model.move(PileType.CASCADE, 0, 6, PileType.OPEN, 0);
+    assertEquals(6, model.getNumCardsInCascadePile(0));
+    assertEquals(new Card(Suits.HEART, 10), model.getOpenCardAt(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void ConcurrentNullType() {
+    FreecellModelCreator.createConcurrent(null);
+  }
+}
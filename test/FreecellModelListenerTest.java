@@ -0,0 +1,176 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.FreecellModel;
+import cs3500.freecell.model.FreecellModelListener;
+import cs3500.freecell.model.FreecellPosition;
+import cs3500.freecell.model.MoveBuffer;
+import cs3500.freecell.model.MoveResult;
+import cs3500.freecell.model.PileType;
+import cs3500.freecell.model.SimpleFreecellModel;
+import cs3500.freecell.model.Suits;
+import cs3500.freecell.model.multimove.MultiMoveSimpleFreecellModel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * To test the events a game of freecell sends to its listeners.
+ */
+public class FreecellModelListenerTest {
+
+  /**
+   * Listener that writes every event it gets to a log.
+   */
+  private static class LogListener implements FreecellModelListener {
+    private final StringBuilder log = new StringBuilder();
+
+    @Override
+    public void gameStarted(int numCascadePiles, int numOpenPiles) {
+      log.append("started ").append(numCascadePiles).append(" ").append(numOpenPiles)
+              .append("\n");
+    }
+
+    @Override
+    public void cardsMoved(PileType source, int pileNumber, int count, PileType destination,
+                           int destPileNumber, int sourceSize, int destSize) {
+      log.append("moved ").append(source).append(" ").append(pileNumber).append(" ")
+              .append(count).append(" ").append(destination).append(" ").append(destPileNumber)
+              .append(" ").append(sourceSize).append(" ").append(destSize).append("\n");
+    }
+
+    @Override
+    public void gameOver() {
+      log.append("over\n");
+    }
+  }
+
+  /**
+   * Makes a deck that deals each suit into its own cascade pile with the ace on top.
+   */
+  private List<Card> suitPerPileDeck() {
+    List<Card> deck = new ArrayList<>();
+    for (int rank = 13; rank >= 1; rank--) {
+      for (Suits suit : new Suits[]{Suits.DIAMOND, Suits.CLUBS, Suits.SPADES, Suits.HEART}) {
+        deck.add(new Card(suit, rank));
+      }
+    }
+    return deck;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullListener() {
+    new SimpleFreecellModel().addListener(null);
+  }
+
+  @Test
+  public void startAndMoveEvents() {
+    FreecellModel<Card> model = new SimpleFreecellModel();
+    LogListener listener = new LogListener();
+    model.addListener(listener);
+    model.startGame(model.getDeck(), 4, 2, false);
+    model.move(PileType.CASCADE, 0, 12, PileType.OPEN, 1);
+    assertEquals(MoveResult.OPEN_PILE_FULL,
+            model.tryMove(PileType.CASCADE, 1, 12, PileType.OPEN, 1));
+    model.undo();
+    model.redo();
+    model.restartDeal();
+    assertEquals("started 4 2\n"
+            + "moved CASCADE 0 1 OPEN 1 12 1\n"
+            + "moved OPEN 1 1 CASCADE 0 0 13\n"
+            + "moved CASCADE 0 1 OPEN 1 12 1\n"
+            + "started 4 2\n", listener.log.toString());
+  }
+
+  @Test
+  public void buildMoveEvent() {
+    FreecellModel<Card> model = new MultiMoveSimpleFreecellModel();
+    model.startGame(this.suitPerPileDeck(), 4, 4, false);
+    model.move(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 0);
+    model.move(PileType.CASCADE, 2, 12, PileType.CASCADE, 0);
+    model.move(PileType.CASCADE, 1, 12, PileType.FOUNDATION, 1);
+    model.move(PileType.CASCADE, 1, 11, PileType.FOUNDATION, 1);
+    LogListener listener = new LogListener();
+    model.addListener(listener);
+    model.move(PileType.CASCADE, 0, 11, PileType.CASCADE, 1);
+    assertEquals("moved CASCADE 0 2 CASCADE 1 11 13\n", listener.log.toString());
+  }
+
+  @Test
+  public void failedBatchHasNoEvents() {
+    FreecellModel<Card> model = new SimpleFreecellModel();
+    model.startGame(model.getDeck(), 4, 2, false);
+    LogListener listener = new LogListener();
+    model.addListener(listener);
+    MoveBuffer moves = new MoveBuffer();
+    moves.add(PileType.CASCADE, 0, 12, PileType.OPEN, 0);
+    moves.add(PileType.CASCADE, 1, 12, PileType.OPEN, 0);
+    assertEquals(1, model.applyMoves(moves));
+    assertEquals("", listener.log.toString());
+  }
+
+  @Test
+  public void batchEvents() {
+    FreecellModel<Card> model = new SimpleFreecellModel();
+    model.startGame(model.getDeck(), 4, 2, false);
+    LogListener listener = new LogListener();
+    model.addListener(listener);
+    MoveBuffer moves = new MoveBuffer();
+    moves.add(PileType.CASCADE, 0, 12, PileType.OPEN, 0);
+    moves.add(PileType.CASCADE, 1, 12, PileType.OPEN, 1);
+    assertEquals(-1, model.applyMoves(moves));
+    assertEquals("moved CASCADE 0 1 OPEN 0 12 1\n"
+            + "moved CASCADE 1 1 OPEN 1 12 1\n", listener.log.toString());
+  }
+
+  @Test
+  public void batchEndsGame() {
+    FreecellModel<Card> model = new SimpleFreecellModel();
+    model.startGame(this.suitPerPileDeck(), 4, 1, false);
+    MoveBuffer moves = new MoveBuffer();
+    for (int card = 12; card >= 0; card--) {
+      for (int pile = 0; pile < 4; pile++) {
+        moves.add(PileType.CASCADE, pile, card, PileType.FOUNDATION, pile);
+      }
+    }
+    LogListener listener = new LogListener();
+    model.addListener(listener);
+    assertEquals(-1, model.applyMoves(moves));
+    String log = listener.log.toString();
+    assertTrue(log.startsWith("moved CASCADE 0 1 FOUNDATION 0 12 1\n"));
+    assertTrue(log.endsWith("moved CASCADE 3 1 FOUNDATION 3 0 13\nover\n"));
+    assertEquals(log.indexOf("over"), log.lastIndexOf("over"));
+  }
+
+  @Test
+  public void gameOverEvent() {
+    FreecellModel<Card> model = new SimpleFreecellModel();
+    model.startGame(this.suitPerPileDeck(), 4, 1, false);
+    LogListener listener = new LogListener();
+    model.addListener(listener);
+    for (int card = 12; card >= 0; card--) {
+      for (int pile = 0; pile < 4; pile++) {
+        model.move(PileType.CASCADE, pile, card, PileType.FOUNDATION, pile);
+      }
+    }
+    assertEquals(true, listener.log.toString().endsWith(
+            "moved CASCADE 3 1 FOUNDATION 3 0 13\nover\n"));
+    assertEquals(1, listener.log.toString().split("over").length - 1);
+  }
+
+  @Test
+  public void removedListenerHearsNothing() {
+    SimpleFreecellModel model = new SimpleFreecellModel();
+    model.startGame(model.getDeck(), 4, 1, false);
+    FreecellPosition start = model.getPosition();
+    LogListener listener = new LogListener();
+    model.addListener(listener);
+    model.restorePosition(start);
+    model.removeListener(listener);
+    model.move(PileType.CASCADE, 0, 12, PileType.OPEN, 0);
+    assertEquals("started 4 1\n", listener.log.toString());
+  }
+}
@@ -0,0 +1,243 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import cs3500.freecell.model.ArrayPileStorage;
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.FreecellPosition;
+import cs3500.freecell.model.PileType;
+import cs3500.freecell.model.SimpleFreecellModel;
+import cs3500.freecell.model.Suits;
+import cs3500.freecell.model.multimove.MultiMoveSimpleFreecellModel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * To test the snapshots of the piles of a freecell game.
+ */
+public class FreecellPositionTest {
+
+  /**
+   * Makes a single move game with a few cards moved to the open and foundation piles.
+   */
+  private SimpleFreecellModel playedGame() {
+    SimpleFreecellModel model = new SimpleFreecellModel();
+    model.startGame(model.getDeck(), 4, 2, false);
+    model.move(PileType.CASCADE, 0, 12, PileType.OPEN, 0);
+    model.move(PileType.CASCADE, 0, 11, PileType.OPEN, 1);
+    return model;
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void disallowPositionBeforeStart() {
+    new SimpleFreecellModel().getPosition();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void disallowRestoreNull() {
+    new SimpleFreecellModel().restorePosition(null);
+  }
+
+  @Test
+  public void positionHoldsPiles() {
+    FreecellPosition position = playedGame().getPosition();
+    assertEquals(4, position.getNumCascadePiles());
+    assertEquals(2, position.getNumOpenPiles());
+    assertEquals(11, position.getNumCardsInCascadePile(0));
+    assertEquals(13, position.getNumCardsInCascadePile(3));
+    assertEquals(Card.of(Suits.DIAMOND, 2).getIndex(), position.getCascadeCard(1, 0));
+    assertEquals(Card.of(Suits.HEART, 10).getIndex(), position.getOpenCard(0));
+    assertEquals(ArrayPileStorage.EMPTY, position.getFoundationTop(0));
+  }
+
+  @Test
+  public void restoreIntoNewModel() {
+    SimpleFreecellModel played = playedGame();
+    SimpleFreecellModel restored = new MultiMoveSimpleFreecellModel();
+    restored.restorePosition(played.getPosition());
+    assertEquals(4, restored.getNumCascadePiles());
+    assertEquals(2, restored.getNumOpenPiles());
+    for (int i = 0; i < 4; i++) {
+      assertEquals(played.getNumCardsInCascadePile(i), restored.getNumCardsInCascadePile(i));
+      for (int j = 0; j < played.getNumCardsInCascadePile(i); j++) {
+        assertEquals(played.getCascadeCardAt(i, j), restored.getCascadeCardAt(i, j));
+      }
+    }
+    assertEquals(played.getOpenCardAt(1), restored.getOpenCardAt(1));
+    assertEquals(played.getPosition(), restored.getPosition());
+  }
+
+  @Test
+  public void restoreFoundations() {
+    SimpleFreecellModel model = new SimpleFreecellModel();
+    model.startGame(model.getDeck(), 52, 1, false);
+    model.move(PileType.CASCADE, 13, 0, PileType.FOUNDATION, 2);
+    model.move(PileType.CASCADE, 14, 0, PileType.FOUNDATION, 2);
+    FreecellPosition position = model.getPosition();
+    model.move(PileType.CASCADE, 15, 0, PileType.FOUNDATION, 2);
+    model.restorePosition(position);
+    assertEquals(2, model.getNumCardsInFoundationPile(2));
+    assertEquals(Card.of(Suits.CLUBS, 2), model.getFoundationCardAt(2, 1));
+    assertEquals(1, model.getNumCardsInCascadePile(15));
+  }
+
+  @Test
+  public void equalPositions() {
+    FreecellPosition first = playedGame().getPosition();
+    FreecellPosition second = playedGame().getPosition();
+    assertEquals(first, second);
+    assertEquals(first.hashCode(), second.hashCode());
+    SimpleFreecellModel model = new SimpleFreecellModel();
+    model.startGame(model.getDeck(), 4, 2, false);
+    model.move(PileType.CASCADE, 0, 12, PileType.OPEN, 1);
+    model.move(PileType.CASCADE, 0, 11, PileType.OPEN, 0);
+    assertNotEquals(first, model.getPosition());
+  }
+
+  @Test
+  public void keyIsPositionHash() {
+    SimpleFreecellModel model = playedGame();
+    FreecellPosition position = model.getPosition();
+    assertEquals(model.getPositionHash(), position.getKey());
+    assertEquals(position.getKey(), playedGame().getPosition().getKey());
+
+    SimpleFreecellModel restored = new SimpleFreecellModel();
+    restored.restorePosition(position);
+    assertEquals(position.getKey(), restored.getPositionHash());
+    SimpleFreecellModel other = new SimpleFreecellModel();
+    other.startGame(other.getDeck(), 4, 2, false);
+    assertNotEquals(position.getKey(), other.getPosition().getKey());
+  }
+
+  @Test
+  public void canonicalIgnoresOpenOrder() {
+    SimpleFreecellModel swapped = new SimpleFreecellModel();
+    swapped.startGame(swapped.getDeck(), 4, 2, false);
+    swapped.move(PileType.CASCADE, 0, 12, PileType.OPEN, 1);
+    swapped.move(PileType.CASCADE, 0, 11, PileType.OPEN, 0);
+    FreecellPosition first = playedGame().getPosition();
+    FreecellPosition second = swapped.getPosition();
+    assertNotEquals(first, second);
+    assertEquals(first.canonical(), second.canonical());
+    assertEquals(first.canonical().getKey(), second.canonical().getKey());
+  }
+
+  @Test
+  public void canonicalIgnoresCascadeOrder() {
+    SimpleFreecellModel model = new SimpleFreecellModel();
+    List<Card> deck = model.getDeck();
+    // the same piles, each dealt one pile to the left.
+    List<Card> rotated = new ArrayList<>();
+    for (int i = 0; i < deck.size(); i++) {
+      rotated.add(deck.get(i - i % 4 + (i + 1) % 4));
+    }
+    model.startGame(deck, 4, 1, false);
+    SimpleFreecellModel other = new SimpleFreecellModel();
+    other.startGame(rotated, 4, 1, false);
+    assertNotEquals(model.getPosition(), other.getPosition());
+    assertEquals(model.getPosition().canonical(), other.getPosition().canonical());
+  }
+
+  @Test
+  public void canonicalIgnoresFoundationOrder() {
+    SimpleFreecellModel model = new SimpleFreecellModel();
+    model.startGame(model.getDeck(), 52, 1, false);
+    SimpleFreecellModel other = new SimpleFreecellModel();
+    other.startGame(other.getDeck(), 52, 1, false);
+    // the aces of diamonds and clubs are the first cards of piles 0 and 13.
+    model.move(PileType.CASCADE, 0, 0, PileType.FOUNDATION, 0);
+    model.move(PileType.CASCADE, 13, 0, PileType.FOUNDATION, 1);
+    other.move(PileType.CASCADE, 13, 0, PileType.FOUNDATION, 3);
+    other.move(PileType.CASCADE, 0, 0, PileType.FOUNDATION, 2);
+    FreecellPosition canonical = model.getPosition().canonical();
+    assertEquals(canonical, other.getPosition().canonical());
+    // foundation pile i holds the suit of index i.
+    assertEquals(new Card(Suits.DIAMOND, 1).getIndex(),
+            canonical.getFoundationTop(Suits.DIAMOND.getIndex()));
+    assertEquals(new Card(Suits.CLUBS, 1).getIndex(),
+            canonical.getFoundationTop(Suits.CLUBS.getIndex()));
+    assertEquals(ArrayPileStorage.EMPTY, canonical.getFoundationTop(Suits.HEART.getIndex()));
+  }
+
+  @Test
+  public void canonicalKeyIsHashOfCanonicalPosition() {
+    FreecellPosition canonical = playedGame().getPosition().canonical();
+    SimpleFreecellModel restored = new MultiMoveSimpleFreecellModel();
+    restored.restorePosition(canonical);
+    assertEquals(canonical, restored.getPosition());
+    assertEquals(canonical.getKey(), restored.getPositionHash());
+    // canonical positions are their own representative.
+    assertSame(canonical, canonical.canonical());
+  }
+
+  @Test
+  public void canonicalSortsPiles() {
+    FreecellPosition canonical = playedGame().getPosition().canonical();
+    for (int i = 1; i < canonical.getNumCascadePiles(); i++) {
+      assertTrue(canonical.getCascadeCard(i - 1, 0) < canonical.getCascadeCard(i, 0));
+    }
+    assertTrue(canonical.getOpenCard(0) < canonical.getOpenCard(1));
+    assertEquals(11, canonical.getNumCardsInCascadePile(
+            indexOfPileStartingWith(canonical, playedGame().getCascadeCardAt(0, 0).getIndex())));
+  }
+
+  @Test
+  public void bytesRoundTrip() {
+    FreecellPosition position = playedGame().getPosition();
+    FreecellPosition read = FreecellPosition.fromBytes(4, 2, position.toBytes());
+    assertEquals(position, read);
+    assertEquals(position.getKey(), read.getKey());
+  }
+
+  @Test
+  public void fromBytesIgnoresPadding() {
+    FreecellPosition position = playedGame().getPosition();
+    byte[] bytes = Arrays.copyOf(position.toBytes(), position.toBytes().length + 8);
+    assertEquals(position, FreecellPosition.fromBytes(4, 2, bytes));
+  }
+
+  @Test
+  public void copyBytesAtOffset() {
+    FreecellPosition position = playedGame().getPosition();
+    byte[] bytes = new byte[position.toBytes().length + 3];
+    assertEquals(position.toBytes().length, position.copyBytes(bytes, 3));
+    assertEquals(position, FreecellPosition.fromBytes(4, 2,
+            Arrays.copyOfRange(bytes, 3, bytes.length)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void copyBytesDisallowsShortArray() {
+    FreecellPosition position = playedGame().getPosition();
+    position.copyBytes(new byte[position.toBytes().length], 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fromBytesDisallowsRepeatedCard() {
+    byte[] bytes = playedGame().getPosition().toBytes();
+    // the first card of the first cascade pile is also the second card.
+    bytes[5] = bytes[4];
+    FreecellPosition.fromBytes(4, 2, bytes);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fromBytesDisallowsShortData() {
+    FreecellPosition.fromBytes(4, 2, new byte[10]);
+  }
+
+  /**
+   * Finds the cascade pile of a position whose first card is the given card.
+   */
+  private int indexOfPileStartingWith(FreecellPosition position, int card) {
+    for (int i = 0; i < position.getNumCascadePiles(); i++) {
+      if (position.getNumCardsInCascadePile(i) > 0 && position.getCascadeCard(i, 0) == card) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
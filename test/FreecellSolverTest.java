@@ -0,0 +1,225 @@
+import org.junit.Test;
+
+import java.util.List;
+
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.FreecellDeals;
+import cs3500.freecell.model.FreecellModel;
+import cs3500.freecell.model.FreecellModelCreator;
+import cs3500.freecell.model.FreecellPosition;
+import cs3500.freecell.model.MoveBuffer;
+import cs3500.freecell.model.PileType;
+import cs3500.freecell.model.SimpleFreecellModel;
+import cs3500.freecell.model.concurrent.ConcurrentFreecellModel;
+import cs3500.freecell.model.multimove.MultiMoveSimpleFreecellModel;
+import cs3500.freecell.solver.FreecellSolver;
+import cs3500.freecell.solver.Heuristics;
+import cs3500.freecell.solver.SolverResult;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * To test solving games of freecell.
+ */
+public class FreecellSolverTest {
+
+  @Test
+  public void testSolveNumberedDeal() {
+    List<Card> deck = FreecellDeals.numberedDeal(1);
+    SolverResult result = new FreecellSolver().solve(FreecellModelCreator.GameType.MULTIMOVE,
+            deck, 8, 4);
+    assertTrue(result.isSolved());
+    assertEquals(SolverResult.Status.SOLVED, result.getStatus());
+    assertTrue(result.getPositionsSearched() > 0);
+
+    FreecellModel<Card> game = new MultiMoveSimpleFreecellModel();
+    game.startGame(deck, 8, 4, false);
+    MoveReplay.replay(game, result.getMoves());
+    assertTrue(game.isGameOver());
+  }
+
+  @Test
+  public void testSolveSingleMoveGame() {
+    SimpleFreecellModel game = new SimpleFreecellModel();
+    game.startGame(FreecellDeals.seededDeal(5), 8, 4, false);
+    SolverResult result = new FreecellSolver().solve(game);
+    assertTrue(result.isSolved());
+    MoveReplay.replay(game, result.getMoves());
+    assertTrue(game.isGameOver());
+  }
+
+  @Test
+  public void testSolveFromCurrentPosition() {
+    SimpleFreecellModel game = new MultiMoveSimpleFreecellModel();
+    game.startGame(FreecellDeals.numberedDeal(1), 8, 4, false);
+    game.move(PileType.CASCADE, 0, 6, PileType.OPEN, 0);
+    FreecellPosition before = game.getPosition();
+
+    SolverResult result = new FreecellSolver().solve(game);
+    assertTrue(result.isSolved());
+    // solving does not change the game.
+    assertEquals(before, game.getPosition());
+    MoveReplay.replay(game, result.getMoves());
+    assertTrue(game.isGameOver());
+  }
+
+  @Test
+  public void testSolveConcurrentGame() {
+    SimpleFreecellModel wrapped = new MultiMoveSimpleFreecellModel();
+    wrapped.startGame(FreecellDeals.numberedDeal(1), 8, 4, false);
+    ConcurrentFreecellModel game = new ConcurrentFreecellModel(wrapped);
+    SolverResult result = new FreecellSolver().solve(game.fork());
+    assertTrue(result.isSolved());
+    MoveReplay.replay(game, result.getMoves());
+    assertTrue(game.isGameOver());
+  }
+
+  @Test
+  public void testSolveWithMoreThan256OpenPiles() {
+    SimpleFreecellModel game = new MultiMoveSimpleFreecellModel();
+    game.startGame(FreecellDeals.numberedDeal(3), 4, 257, false);
+    // puts the last card of every cascade pile in the open piles past index 255.
+    for (int pile = 0; pile < 4; pile++) {
+      game.move(PileType.CASCADE, pile, game.getNumCardsInCascadePile(pile) - 1,
+              PileType.OPEN, 256 - pile);
+    }
+    SolverResult result = new FreecellSolver().solve(game);
+    assertTrue(result.isSolved());
+    MoveBuffer moves = result.getMoves();
+    boolean highPile = false;
+    for (int i = 0; i < moves.size(); i++) {
+      highPile |= moves.getSource(i) == PileType.OPEN && moves.getPileNumber(i) > 255
+              && moves.getDestination(i) == PileType.CASCADE;
+    }
+    assertTrue(highPile);
+    MoveReplay.replay(game, moves);
+    assertTrue(game.isGameOver());
+  }
+
+  @Test
+  public void testMovesAreCopied() {
+    SolverResult result = new FreecellSolver().solve(FreecellModelCreator.GameType.MULTIMOVE,
+            FreecellDeals.numberedDeal(1), 8, 4);
+    int size = result.getMoves().size();
+    result.getMoves().clear();
+    assertEquals(size, result.getMoves().size());
+  }
+
+  @Test
+  public void testSolveWonGame() {
+    SimpleFreecellModel game = new SimpleFreecellModel();
+    game.startGame(game.getDeck(), 52, 1, false);
+    game.autoPlay();
+    assertTrue(game.isGameOver());
+    SolverResult result = new FreecellSolver().solve(game);
+    assertTrue(result.isSolved());
+    assertEquals(0, result.getMoves().size());
+    assertEquals(0, result.getPositionsSearched());
+  }
+
+  @Test
+  public void testShortestSolution() {
+    // every card of this deal can go straight to the foundation piles.
+    SimpleFreecellModel game = new SimpleFreecellModel();
+    game.startGame(game.getDeck(), 52, 1, false);
+    SolverResult result = new FreecellSolver(Heuristics.CARDS_LEFT, 1, 10_000).solve(game);
+    assertTrue(result.isSolved());
+    assertEquals(52, result.getMoves().size());
+  }
+
+  @Test
+  public void testUnsolvable() {
+    // with single card moves, every position reachable from this deal runs out of moves.
+    SimpleFreecellModel game = new SimpleFreecellModel();
+    SolverResult result = new FreecellSolver().solve(FreecellModelCreator.GameType.SINGLEMOVE,
+            game.getDeck(), 4, 4);
+    assertFalse(result.isSolved());
+    assertEquals(SolverResult.Status.UNSOLVABLE, result.getStatus());
+    assertEquals(0, result.getMoves().size());
+  }
+
+  @Test
+  public void testLimitReached() {
+    SolverResult result = new FreecellSolver(Heuristics.CARDS_LEFT, 1, 10)
+            .solve(FreecellModelCreator.GameType.SINGLEMOVE, FreecellDeals.numberedDeal(1), 8, 4);
+    assertFalse(result.isSolved());
+    assertEquals(SolverResult.Status.LIMIT_REACHED, result.getStatus());
+    assertEquals(10, result.getPositionsSearched());
+    assertEquals(0, result.getMoves().size());
+  }
+
+  @Test
+  public void testHeuristicsOfWonGame() {
+    SimpleFreecellModel game = new SimpleFreecellModel();
+    game.startGame(game.getDeck(), 52, 1, false);
+    assertEquals(52, Heuristics.CARDS_LEFT.estimate(game.getPosition()));
+    game.autoPlay();
+    for (Heuristics heuristic : Heuristics.values()) {
+      assertEquals(0, heuristic.estimate(game.getPosition()));
+    }
+  }
+
+  @Test
+  public void testBlockers() {
+    SimpleFreecellModel game = new SimpleFreecellModel();
+    // each pile holds three or four cards of every suit from low to high, so all but the lowest
+    // card of each suit are above a lower card: 9 cards in each of the 4 piles.
+    game.startGame(game.getDeck(), 4, 4, false);
+    FreecellPosition position = game.getPosition();
+    assertEquals(52, Heuristics.CARDS_LEFT.estimate(position));
+    assertEquals(52 + 36, Heuristics.BLOCKERS.estimate(position));
+    assertEquals(2 * 52 + 36, Heuristics.BLOCKERS_AND_OPEN_CELLS.estimate(position));
+
+    game.move(PileType.CASCADE, 0, 12, PileType.OPEN, 0);
+    assertEquals(52 + 35, Heuristics.BLOCKERS.estimate(game.getPosition()));
+    assertEquals(2 * 52 + 35 + 1, Heuristics.BLOCKERS_AND_OPEN_CELLS.estimate(
+            game.getPosition()));
+  }
+
+  @Test
+  public void testNoBlockers() {
+    SimpleFreecellModel game = new SimpleFreecellModel();
+    // every card is alone in its cascade pile, so nothing is blocked.
+    game.startGame(game.getDeck(), 52, 2, false);
+    assertEquals(52, Heuristics.BLOCKERS.estimate(game.getPosition()));
+    assertEquals(104, Heuristics.BLOCKERS_AND_OPEN_CELLS.estimate(game.getPosition()));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSolveGameNotStarted() {
+    new FreecellSolver().solve(new SimpleFreecellModel());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSolveNullGame() {
+    new FreecellSolver().solve(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSolveNullType() {
+    new FreecellSolver().solve(null, FreecellDeals.numberedDeal(1), 8, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSolveInvalidDeal() {
+    new FreecellSolver().solve(FreecellModelCreator.GameType.SINGLEMOVE,
+            FreecellDeals.numberedDeal(1), 3, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullHeuristic() {
+    new FreecellSolver(null, 1, 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWeightBelowOne() {
+    new FreecellSolver(Heuristics.CARDS_LEFT, 0.5, 10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoPositions() {
+    new FreecellSolver(Heuristics.CARDS_LEFT, 1, 0);
+  }
+}
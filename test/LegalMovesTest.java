@@ -0,0 +1,129 @@
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.MoveBuffer;
+import cs3500.freecell.model.PileType;
+import cs3500.freecell.model.SimpleFreecellModel;
+import cs3500.freecell.model.multimove.MultiMoveSimpleFreecellModel;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * To test the legal move generator of the freecell models against trying every move.
+ */
+public class LegalMovesTest {
+
+  /**
+   * Finds every legal move by trying all of them on forks of the game.
+   */
+  private Set<String> tryAllMoves(SimpleFreecellModel model) {
+    Set<String> legal = new HashSet<>();
+    PileType[] sources = {PileType.CASCADE, PileType.OPEN};
+    for (PileType source : sources) {
+      int numSources = source == PileType.CASCADE ? model.getNumCascadePiles()
+              : model.getNumOpenPiles();
+      for (int pile = 0; pile < numSources; pile++) {
+        int numCards = source == PileType.CASCADE ? model.getNumCardsInCascadePile(pile)
+                : model.getNumCardsInOpenPile(pile);
+        for (int card = 0; card < numCards; card++) {
+          for (PileType destination : PileType.values()) {
+            int numDest = destination == PileType.CASCADE ? model.getNumCascadePiles()
+                    : destination == PileType.OPEN ? model.getNumOpenPiles() : 4;
+            for (int dest = 0; dest < numDest; dest++) {
+              try {
+                model.fork().move(source, pile, card, destination, dest);
+                legal.add(source + " " + pile + " " + card + " " + destination + " " + dest);
+              } catch (IllegalArgumentException e) {
+                // not a legal move
+              }
+            }
+          }
+        }
+      }
+    }
+    return legal;
+  }
+
+  /**
+   * Gets the moves in the buffer as strings.
+   */
+  private Set<String> generated(MoveBuffer moves) {
+    Set<String> result = new HashSet<>();
+    for (int i = 0; i < moves.size(); i++) {
+      result.add(moves.getSource(i) + " " + moves.getPileNumber(i) + " "
+              + moves.getCardIndex(i) + " " + moves.getDestination(i) + " "
+              + moves.getDestPileNumber(i));
+    }
+    return result;
+  }
+
+  /**
+   * Plays random legal moves and checks the generator after each of them.
+   */
+  private void checkRandomGame(SimpleFreecellModel model, long seed, int numOpens) {
+    Random random = new Random(seed);
+    List<Card> deck = model.getDeck();
+    Collections.shuffle(deck, random);
+    model.startGame(deck, 8, numOpens, false);
+    MoveBuffer moves = new MoveBuffer(4);
+    for (int i = 0; i < 60; i++) {
+      int count = model.getLegalMoves(moves);
+      assertEquals(count, moves.size());
+      assertEquals(tryAllMoves(model), generated(moves));
+      if (count == 0) {
+        return;
+      }
+      int next = random.nextInt(count);
+      model.move(moves.getSource(next), moves.getPileNumber(next), moves.getCardIndex(next),
+              moves.getDestination(next), moves.getDestPileNumber(next));
+    }
+  }
+
+  @Test
+  public void singleMoveGeneratorMatchesMove() {
+    for (long seed = 0; seed < 5; seed++) {
+      checkRandomGame(new SimpleFreecellModel(), seed, 4);
+    }
+  }
+
+  @Test
+  public void multiMoveGeneratorMatchesMove() {
+    for (long seed = 0; seed < 5; seed++) {
+      checkRandomGame(new MultiMoveSimpleFreecellModel(), seed, 2);
+    }
+  }
+
+  @Test
+  public void bufferIsClearedBeforeFilling() {
+    SimpleFreecellModel model = new SimpleFreecellModel();
+    model.startGame(model.getDeck(), 4, 1, false);
+    MoveBuffer moves = new MoveBuffer();
+    moves.add(PileType.OPEN, 0, 0, PileType.OPEN, 0);
+    // only the last card of each cascade can go to the open pile.
+    assertEquals(4, model.getLegalMoves(moves));
+    assertEquals(PileType.OPEN, moves.getDestination(0));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void disallowMovesBeforeStart() {
+    new SimpleFreecellModel().getLegalMoves(new MoveBuffer());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void disallowNullBuffer() {
+    SimpleFreecellModel model = new SimpleFreecellModel();
+    model.startGame(model.getDeck(), 4, 1, false);
+    model.getLegalMoves(null);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void disallowReadingPastSize() {
+    new MoveBuffer().getSource(0);
+  }
+}
@@ -0,0 +1,30 @@
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.FreecellModel;
+import cs3500.freecell.model.MoveBuffer;
+
+/**
+ * To make the moves found by a solver in a game, so tests can check that they are legal.
+ */
+final class MoveReplay {
+
+  private MoveReplay() {
+  }
+
+  /**
+   * Makes every move of the buffer in the game, failing the test if any of them is not allowed.
+   */
+  static void replay(FreecellModel<Card> game, MoveBuffer moves) {
+    replay(game, moves, moves.size());
+  }
+
+  /**
+   * Makes the first moves of the buffer in the game, failing the test if any of them is not
+   * allowed.
+   */
+  static void replay(FreecellModel<Card> game, MoveBuffer moves, int count) {
+    for (int i = 0; i < count; i++) {
+      game.move(moves.getSource(i), moves.getPileNumber(i), moves.getCardIndex(i),
+              moves.getDestination(i), moves.getDestPileNumber(i));
+    }
+  }
+}
@@ -7,7 +7,9 @@ import java.util.function.Function;
 
 import cs3500.freecell.model.Card;
 import cs3500.freecell.model.FreecellModel;
+import cs3500.freecell.model.MoveResult;
 import cs3500.freecell.model.PileType;
+import cs3500.freecell.model.SimpleFreecellModel;
 import cs3500.freecell.model.Suits;
 import cs3500.freecell.model.multimove.MultiMoveSimpleFreecellModel;
 
@@ -611,4 +613,96 @@ public class MultiMoveSimpleFreecellModelTest {
     assertEquals(5, this.model.getNumCascadePiles());
     assertEquals(2, this.model.getNumOpenPiles());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void positionHashFollowsBuildMoves() {
+    initBuild(this::makeBuild);
+    model.move(PileType.CASCADE, 1, 9, PileType.OPEN, 0);
+    long before = model.getPositionHash();
+    model.move(PileType.CASCADE, 0, 9, PileType.CASCADE, 1);
+    assertNotEquals(before, model.getPositionHash());
+    // rebuilding the same position from scratch gives the same hash.
+    SimpleFreecellModel copy = new SimpleFreecellModel();
+    copy.restorePosition(((SimpleFreecellModel) model).getPosition());
+    assertEquals(model.getPositionHash(), copy.getPositionHash());
+  }
+
+  @Test
+  public void undoBuildMove() {
+    initBuild(this::makeBuild);
+    model.move(PileType.CASCADE, 1, 9, PileType.OPEN, 0);
+    long before = model.getPositionHash();
+    model.move(PileType.CASCADE, 0, 9, PileType.CASCADE, 1);
+    long after = model.getPositionHash();
+    model.undo();
+    assertEquals(13, model.getNumCardsInCascadePile(0));
+    assertEquals(9, model.getNumCardsInCascadePile(1));
+    assertEquals(before, model.getPositionHash());
+    model.redo();
+    assertEquals(9, model.getNumCardsInCascadePile(0));
+    assertEquals(13, model.getNumCardsInCascadePile(1));
+    assertEquals(after, model.getPositionHash());
+  }
+
+  @Test
+  public void forkBuildMoveLeavesParent() {
+    initBuild(this::makeBuild);
+    model.move(PileType.CASCADE, 1, 9, PileType.OPEN, 0);
+    MultiMoveSimpleFreecellModel parent = (MultiMoveSimpleFreecellModel) model;
+    MultiMoveSimpleFreecellModel fork = parent.fork();
+    fork.move(PileType.CASCADE, 0, 9, PileType.CASCADE, 1);
+    assertEquals(13, fork.getNumCardsInCascadePile(1));
+    assertEquals(9, parent.getNumCardsInCascadePile(1));
+    assertEquals(13, parent.getNumCardsInCascadePile(0));
+  }
+
+  @Test
+  public void tryMoveReportsInvalidBuild() {
+    init();
+    assertEquals(MoveResult.INVALID_BUILD,
+            model.tryMove(PileType.CASCADE, 0, 11, PileType.CASCADE, 1));
+    assertEquals(MoveResult.INVALID_CARD_INDEX,
+            model.tryMove(PileType.CASCADE, 0, 13, PileType.CASCADE, 1));
+    assertEquals(13, model.getNumCardsInCascadePile(0));
+  }
+
+  @Test
+  public void tryMoveReportsBuildIntoNonCascade() {
+    initBuild(this::makeBuild);
+    assertEquals(MoveResult.BUILD_INTO_NON_CASCADE,
+            model.tryMove(PileType.CASCADE, 0, 10, PileType.OPEN, 0));
+    assertEquals(MoveResult.INVALID_CASCADE_ORDER,
+            model.tryMove(PileType.CASCADE, 0, 10, PileType.CASCADE, 1));
+    assertEquals(13, model.getNumCardsInCascadePile(0));
+  }
+
+  @Test
+  public void tryMoveReportsBuildTooLarge() {
+    initBuild(this::makeBuild);
+    for (int i = 0; i < 4; i++) {
+      model.move(PileType.CASCADE, 3, model.getNumCardsInCascadePile(3) - 1, PileType.OPEN, i);
+    }
+    assertEquals(MoveResult.BUILD_TOO_LARGE,
+            model.tryMove(PileType.CASCADE, 0, 10, PileType.CASCADE, 1));
+    assertEquals(MoveResult.SUCCESS,
+            model.tryMove(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 3));
+    assertEquals(12, model.getNumCardsInCascadePile(0));
+  }
+
+  @Test
+  public void movableBuildSizeFollowsBuilds() {
+    initBuild(this::makeBuild);
+    MultiMoveSimpleFreecellModel game = (MultiMoveSimpleFreecellModel) model;
+    assertEquals(4, game.getMovableBuildSize(0));
+    assertEquals(1, game.getMovableBuildSize(1));
+    for (int i = 0; i < 4; i++) {
+      model.move(PileType.CASCADE, 3, model.getNumCardsInCascadePile(3) - 1, PileType.OPEN, i);
+    }
+    assertEquals(2, game.getMovableBuildSize(0));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void movableBuildSizeBeforeStart() {
+    new MultiMoveSimpleFreecellModel().getMovableBuildSize(0);
+  }
+}
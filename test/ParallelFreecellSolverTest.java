@@ -0,0 +1,135 @@
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.FreecellDeals;
+import cs3500.freecell.model.FreecellModel;
+import cs3500.freecell.model.FreecellModelCreator;
+import cs3500.freecell.model.FreecellPosition;
+import cs3500.freecell.model.PileType;
+import cs3500.freecell.model.SimpleFreecellModel;
+import cs3500.freecell.model.multimove.MultiMoveSimpleFreecellModel;
+import cs3500.freecell.solver.Heuristics;
+import cs3500.freecell.solver.ParallelFreecellSolver;
+import cs3500.freecell.solver.SolverResult;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * To test solving games of freecell on several threads.
+ */
+public class ParallelFreecellSolverTest {
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+
+  private ParallelFreecellSolver solver(int maxPositions) {
+    return new ParallelFreecellSolver(Heuristics.BLOCKERS_AND_OPEN_CELLS, 5, maxPositions,
+            this.pool);
+  }
+
+  @Test
+  public void testSolveNumberedDeals() {
+    for (int deal = 1; deal <= 5; deal++) {
+      List<Card> deck = FreecellDeals.numberedDeal(deal);
+      SolverResult result = this.solver(200_000).solve(FreecellModelCreator.GameType.MULTIMOVE,
+              deck, 8, 4);
+      assertTrue(result.isSolved());
+
+      FreecellModel<Card> game = new MultiMoveSimpleFreecellModel();
+      game.startGame(deck, 8, 4, false);
+      MoveReplay.replay(game, result.getMoves());
+      assertTrue(game.isGameOver());
+    }
+  }
+
+  @Test
+  public void testSolveFromCurrentPosition() {
+    SimpleFreecellModel game = new MultiMoveSimpleFreecellModel();
+    game.startGame(FreecellDeals.numberedDeal(2), 8, 2, false);
+    game.move(PileType.CASCADE, 0, 6, PileType.OPEN, 0);
+    FreecellPosition before = game.getPosition();
+
+    SolverResult result = this.solver(200_000).solve(game);
+    assertTrue(result.isSolved());
+    // solving does not change the game.
+    assertEquals(before, game.getPosition());
+    MoveReplay.replay(game, result.getMoves());
+    assertTrue(game.isGameOver());
+  }
+
+  @Test
+  public void testSolveWonGame() {
+    SimpleFreecellModel game = new SimpleFreecellModel();
+    game.startGame(game.getDeck(), 52, 1, false);
+    game.autoPlay();
+    SolverResult result = this.solver(10).solve(game);
+    assertTrue(result.isSolved());
+    assertEquals(0, result.getMoves().size());
+    assertEquals(0, result.getPositionsSearched());
+  }
+
+  @Test
+  public void testUnsolvable() {
+    SimpleFreecellModel game = new SimpleFreecellModel();
+    SolverResult result = this.solver(200_000).solve(FreecellModelCreator.GameType.SINGLEMOVE,
+            game.getDeck(), 4, 4);
+    assertEquals(SolverResult.Status.UNSOLVABLE, result.getStatus());
+    assertEquals(0, result.getMoves().size());
+  }
+
+  @Test
+  public void testLimitReached() {
+    SolverResult result = this.solver(100).solve(FreecellModelCreator.GameType.SINGLEMOVE,
+            FreecellDeals.numberedDeal(1), 8, 4);
+    assertFalse(result.isSolved());
+    assertEquals(SolverResult.Status.LIMIT_REACHED, result.getStatus());
+    // the workers share the limit, so together they never search more positions.
+    assertEquals(100, result.getPositionsSearched());
+    assertEquals(0, result.getMoves().size());
+  }
+
+  @Test
+  public void testDefaultSolver() {
+    List<Card> deck = FreecellDeals.numberedDeal(3);
+    SolverResult result = new ParallelFreecellSolver().solve(
+            FreecellModelCreator.GameType.MULTIMOVE, deck, 8, 4);
+    assertTrue(result.isSolved());
+    FreecellModel<Card> game = new MultiMoveSimpleFreecellModel();
+    game.startGame(deck, 8, 4, false);
+    MoveReplay.replay(game, result.getMoves());
+    assertTrue(game.isGameOver());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSolveGameNotStarted() {
+    this.solver(10).solve(new SimpleFreecellModel());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSolveNullGame() {
+    this.solver(10).solve(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullPool() {
+    new ParallelFreecellSolver(Heuristics.CARDS_LEFT, 1, 10, null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullHeuristic() {
+    new ParallelFreecellSolver(null, 1, 10, this.pool);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWeightBelowOne() {
+    new ParallelFreecellSolver(Heuristics.CARDS_LEFT, 0, 10, this.pool);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoPositions() {
+    new ParallelFreecellSolver(Heuristics.CARDS_LEFT, 1, -1, this.pool);
+  }
+}
@@ -6,12 +6,14 @@ import java.util.List;
 
 import cs3500.freecell.model.Card;
 import cs3500.freecell.model.FreecellModel;
+import cs3500.freecell.model.MoveResult;
 import cs3500.freecell.model.PileType;
 import cs3500.freecell.model.SimpleFreecellModel;
 import cs3500.freecell.model.Suits;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 
 /**
  * To test the Simple Freecell Model and its functionalities.
@@ -149,6 +151,15 @@ public class SimpleFreecellModelTest {
     assertEquals(this.deck, this.model_1.getDeck());
   }
 
+  @Test
+  public void getDeckReusesCards() {
+    List<Card> first = this.model_1.getDeck();
+    List<Card> second = new SimpleFreecellModel().getDeck();
+    for (int i = 0; i < first.size(); i++) {
+      assertSame(first.get(i), second.get(i));
+    }
+  }
+
   @Test
   public void shuffleDeckTest() {
     initValidDeck();
@@ -472,4 +483,332 @@ public class SimpleFreecellModelTest {
     this.model_3.move(PileType.CASCADE, 1, 12, PileType.CASCADE, 0);
     assertEquals(13, model_3.getNumCardsInCascadePile(0));
   }
-}
\ No newline at end of file
+
+  @Test(expected = IllegalStateException.class)
+  public void getPositionHashWhileInactiveGame() {
+    this.model_1.getPositionHash();
+  }
+
+  @Test
+  public void positionHashFollowsMoves() {
+    this.initModelCorrectDeck();
+    long start = this.model_3.getPositionHash();
+    this.model_3.move(PileType.CASCADE, 0, 12, PileType.OPEN, 0);
+    long inOpen = this.model_3.getPositionHash();
+    assertNotEquals(start, inOpen);
+    this.model_3.move(PileType.OPEN, 0, 0, PileType.FOUNDATION, 0);
+    assertNotEquals(inOpen, this.model_3.getPositionHash());
+
+    FreecellModel<Card> other = new SimpleFreecellModel();
+    other.startGame(this.correct_order_deck, 4, 1, false);
+    assertEquals(start, other.getPositionHash());
+    other.move(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 0);
+    assertEquals(this.model_3.getPositionHash(), other.getPositionHash());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void undoWhileInactiveGame() {
+    this.model_1.undo();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void undoWithNoMoves() {
+    this.initModel();
+    this.model_2.undo();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void redoWithNoUndoneMoves() {
+    this.initModel();
+    this.model_2.move(PileType.CASCADE, 0, 12, PileType.OPEN, 0);
+    this.model_2.redo();
+  }
+
+  @Test
+  public void undoAndRedoMoves() {
+    this.initModelCorrectDeck();
+    long start = this.model_3.getPositionHash();
+    this.model_3.move(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 0);
+    this.model_3.move(PileType.CASCADE, 1, 12, PileType.CASCADE, 0);
+    this.model_3.move(PileType.CASCADE, 1, 11, PileType.OPEN, 0);
+    long end = this.model_3.getPositionHash();
+
+    this.model_3.undo();
+    assertEquals(0, this.model_3.getNumCardsInOpenPile(0));
+    assertEquals(12, this.model_3.getNumCardsInCascadePile(1));
+    this.model_3.undo();
+    assertEquals(this.c_1, this.model_3.getCascadeCardAt(1, 12));
+    this.model_3.undo();
+    assertEquals(0, this.model_3.getNumCardsInFoundationPile(0));
+    assertEquals(this.d_1, this.model_3.getCascadeCardAt(0, 12));
+    assertEquals(start, this.model_3.getPositionHash());
+
+    this.model_3.redo();
+    this.model_3.redo();
+    this.model_3.redo();
+    assertEquals(end, this.model_3.getPositionHash());
+    assertEquals(this.c_2, this.model_3.getOpenCardAt(0));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void newMoveDiscardsRedo() {
+    this.initModelCorrectDeck();
+    this.model_3.move(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 0);
+    this.model_3.undo();
+    this.model_3.move(PileType.CASCADE, 0, 12, PileType.OPEN, 0);
+    this.model_3.redo();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void startGameClearsHistory() {
+    this.initModel();
+    this.model_2.move(PileType.CASCADE, 0, 12, PileType.OPEN, 0);
+    this.model_2.startGame(this.model_2.getDeck(), 4, 1, false);
+    this.model_2.undo();
+  }
+
+  @Test
+  public void forkIsIndependent() {
+    this.initModelCorrectDeck();
+    this.model_3.move(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 0);
+    SimpleFreecellModel parent = (SimpleFreecellModel) this.model_3;
+    SimpleFreecellModel fork = parent.fork();
+    assertEquals(parent.getPosition(), fork.getPosition());
+    assertEquals(parent.getPositionHash(), fork.getPositionHash());
+
+    fork.move(PileType.CASCADE, 1, 12, PileType.CASCADE, 0);
+    assertEquals(12, parent.getNumCardsInCascadePile(0));
+    assertEquals(13, parent.getNumCardsInCascadePile(1));
+    assertEquals(13, fork.getNumCardsInCascadePile(0));
+    assertEquals(this.c_1, fork.getCascadeCardAt(0, 12));
+
+    parent.move(PileType.CASCADE, 2, 12, PileType.CASCADE, 0);
+    parent.move(PileType.CASCADE, 3, 12, PileType.OPEN, 0);
+    assertEquals(this.s_1, parent.getCascadeCardAt(0, 12));
+    assertEquals(this.c_1, fork.getCascadeCardAt(0, 12));
+    assertEquals(13, fork.getNumCardsInCascadePile(2));
+    assertEquals(null, fork.getOpenCardAt(0));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void forkStartsWithoutHistory() {
+    this.initModelCorrectDeck();
+    this.model_3.move(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 0);
+    ((SimpleFreecellModel) this.model_3).fork().undo();
+  }
+
+  @Test
+  public void tryMoveWhileInactiveGame() {
+    assertEquals(MoveResult.GAME_NOT_STARTED,
+            this.model_1.tryMove(PileType.CASCADE, 0, 0, PileType.OPEN, 0));
+  }
+
+  @Test
+  public void tryMoveReportsInvalidPiles() {
+    this.initModel();
+    assertEquals(MoveResult.INVALID_SOURCE,
+            this.model_2.tryMove(PileType.FOUNDATION, 0, 0, PileType.OPEN, 0));
+    assertEquals(MoveResult.INVALID_PILE_INDEX,
+            this.model_2.tryMove(PileType.CASCADE, 4, 12, PileType.OPEN, 0));
+    assertEquals(MoveResult.INVALID_PILE_INDEX,
+            this.model_2.tryMove(PileType.CASCADE, 0, 12, PileType.OPEN, 1));
+    assertEquals(MoveResult.INVALID_PILE_INDEX,
+            this.model_2.tryMove(PileType.CASCADE, -1, 12, PileType.FOUNDATION, 0));
+    assertEquals(MoveResult.INVALID_CARD_INDEX,
+            this.model_2.tryMove(PileType.CASCADE, 0, 3, PileType.OPEN, 0));
+    assertEquals(MoveResult.INVALID_CARD_INDEX,
+            this.model_2.tryMove(PileType.OPEN, 0, 0, PileType.CASCADE, 0));
+  }
+
+  @Test
+  public void tryMoveReportsMissingAce() {
+    this.initModel();
+    assertEquals(MoveResult.NOT_AN_ACE,
+            this.model_2.tryMove(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 0));
+    assertEquals(13, this.model_2.getNumCardsInCascadePile(0));
+  }
+
+  @Test
+  public void tryMoveReportsInvalidOrder() {
+    this.initModelCorrectDeck();
+    long hash = this.model_3.getPositionHash();
+    assertEquals(MoveResult.INVALID_CASCADE_ORDER,
+            this.model_3.tryMove(PileType.CASCADE, 3, 12, PileType.CASCADE, 0));
+    assertEquals(hash, this.model_3.getPositionHash());
+
+    assertEquals(MoveResult.SUCCESS,
+            this.model_3.tryMove(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 0));
+    assertEquals(MoveResult.INVALID_FOUNDATION_ORDER,
+            this.model_3.tryMove(PileType.CASCADE, 1, 12, PileType.FOUNDATION, 0));
+    assertEquals(this.d_1, this.model_3.getFoundationCardAt(0, 0));
+    assertEquals(13, this.model_3.getNumCardsInCascadePile(1));
+  }
+
+  @Test
+  public void tryMoveReportsFullOpenPile() {
+    this.initModelCorrectDeck();
+    assertEquals(MoveResult.SUCCESS,
+            this.model_3.tryMove(PileType.CASCADE, 1, 12, PileType.OPEN, 0));
+    long hash = this.model_3.getPositionHash();
+    assertEquals(MoveResult.OPEN_PILE_FULL,
+            this.model_3.tryMove(PileType.CASCADE, 2, 12, PileType.OPEN, 0));
+    assertEquals(hash, this.model_3.getPositionHash());
+    assertEquals(this.c_1, this.model_3.getOpenCardAt(0));
+    assertEquals(13, this.model_3.getNumCardsInCascadePile(2));
+  }
+
+  @Test
+  public void moveThrowsTryMoveMessage() {
+    this.initModelCorrectDeck();
+    try {
+      this.model_3.move(PileType.CASCADE, 3, 12, PileType.CASCADE, 0);
+    } catch (IllegalArgumentException e) {
+      assertEquals(MoveResult.INVALID_CASCADE_ORDER.getMessage(), e.getMessage());
+      return;
+    }
+    throw new AssertionError("Expected the move to be rejected");
+  }
+
+  @Test
+  public void invalidDeckKeepsCurrentGame() {
+    this.initModelCorrectDeck();
+    this.model_3.move(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 0);
+    long hash = this.model_3.getPositionHash();
+    try {
+      this.model_3.startGame(this.invalidDeck, 4, 1, false);
+    } catch (IllegalArgumentException e) {
+      assertEquals(hash, this.model_3.getPositionHash());
+      assertEquals(this.d_1, this.model_3.getFoundationCardAt(0, 0));
+      return;
+    }
+    throw new AssertionError("Expected the deck to be rejected");
+  }
+
+  @Test
+  public void restartingReplacesPreviousDeal() {
+    this.initModelCorrectDeck();
+    this.model_3.move(PileType.CASCADE, 0, 12, PileType.OPEN, 0);
+    this.model_3.startGame(this.model_3.getDeck(), 4, 1, false);
+    FreecellModel<Card> fresh = new SimpleFreecellModel();
+    fresh.startGame(fresh.getDeck(), 4, 1, false);
+    assertEquals(fresh.getPositionHash(), this.model_3.getPositionHash());
+    assertEquals(null, this.model_3.getOpenCardAt(0));
+    assertEquals(13, this.model_3.getNumCardsInCascadePile(0));
+  }
+
+  @Test
+  public void resetEndsTheGame() {
+    this.initModel();
+    this.model_2.move(PileType.CASCADE, 0, 12, PileType.OPEN, 0);
+    this.model_2.reset();
+    assertEquals(-1, this.model_2.getNumCascadePiles());
+    assertEquals(false, this.model_2.isGameOver());
+    assertEquals(MoveResult.GAME_NOT_STARTED,
+            this.model_2.tryMove(PileType.OPEN, 0, 0, PileType.CASCADE, 0));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void restartDealBeforeStart() {
+    this.model_1.restartDeal();
+  }
+
+  @Test
+  public void restartDealRestoresInitialLayout() {
+    this.initModelCorrectDeck();
+    long hash = this.model_3.getPositionHash();
+    this.model_3.move(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 0);
+    this.model_3.move(PileType.CASCADE, 1, 12, PileType.OPEN, 0);
+    this.model_3.restartDeal();
+    assertEquals(hash, this.model_3.getPositionHash());
+    assertEquals(this.d_1, this.model_3.getCascadeCardAt(0, 12));
+    assertEquals(null, this.model_3.getOpenCardAt(0));
+    assertEquals(0, this.model_3.getNumCardsInFoundationPile(0));
+  }
+
+  @Test
+  public void restartDealAfterReset() {
+    this.initValidDeck();
+    this.model_1.startGame(this.deck, 8, 4, true);
+    long hash = this.model_1.getPositionHash();
+    Card first = this.model_1.getCascadeCardAt(0, 0);
+    this.model_1.reset();
+    this.model_1.restartDeal();
+    assertEquals(hash, this.model_1.getPositionHash());
+    assertEquals(first, this.model_1.getCascadeCardAt(0, 0));
+    assertEquals(8, this.model_1.getNumCascadePiles());
+  }
+
+  @Test
+  public void restartDealIgnoresRejectedDeck() {
+    this.initModelCorrectDeck();
+    long hash = this.model_3.getPositionHash();
+    try {
+      this.model_3.startGame(this.invalidDeck, 4, 1, false);
+    } catch (IllegalArgumentException e) {
+      // the previous deal is still the one restarted
+    }
+    this.model_3.move(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 0);
+    this.model_3.restartDeal();
+    assertEquals(hash, this.model_3.getPositionHash());
+  }
+
+  @Test
+  public void copyCascadePileMatchesCards() {
+    this.initModel();
+    Card[] cards = new Card[20];
+    assertEquals(13, this.model_2.copyCascadePile(1, cards));
+    for (int i = 0; i < 13; i++) {
+      assertEquals(this.model_2.getCascadeCardAt(1, i), cards[i]);
+    }
+    assertEquals(null, cards[13]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void copyCascadePileArrayTooSmall() {
+    this.initModel();
+    this.model_2.copyCascadePile(0, new Card[12]);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void copyFoundationPileWhileInactiveGame() {
+    this.model_1.copyFoundationPile(0, new Card[13]);
+  }
+
+  @Test
+  public void copyFoundationPileFromAce() {
+    this.initModelCorrectDeck();
+    this.model_3.move(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 2);
+    this.model_3.move(PileType.CASCADE, 0, 11, PileType.FOUNDATION, 2);
+    Card[] cards = new Card[2];
+    assertEquals(2, this.model_3.copyFoundationPile(2, cards));
+    assertEquals(this.d_1, cards[0]);
+    assertEquals(this.d_2, cards[1]);
+    assertEquals(0, this.model_3.copyFoundationPile(0, new Card[0]));
+  }
+
+  @Test
+  public void pileViewsFollowMoves() {
+    this.initModelCorrectDeck();
+    List<Card> cascade = this.model_3.getCascadePile(0);
+    List<Card> foundation = this.model_3.getFoundationPile(0);
+    assertEquals(13, cascade.size());
+    assertEquals(this.d_1, cascade.get(12));
+    assertEquals(0, foundation.size());
+    this.model_3.move(PileType.CASCADE, 0, 12, PileType.FOUNDATION, 0);
+    assertEquals(12, cascade.size());
+    assertEquals(this.d_2, cascade.get(11));
+    assertEquals(Arrays.asList(this.d_1), foundation);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void pileViewIsReadOnly() {
+    this.initModel();
+    this.model_2.getCascadePile(0).remove(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void pileViewInvalidIndex() {
+    this.initModel();
+    this.model_2.getCascadePile(4);
+  }
+}
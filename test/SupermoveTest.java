@@ -0,0 +1,111 @@
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import cs3500.freecell.model.Card;
+import cs3500.freecell.model.MoveBuffer;
+import cs3500.freecell.model.MoveResult;
+import cs3500.freecell.model.PileType;
+import cs3500.freecell.model.multimove.MultiMoveSimpleFreecellModel;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * To test expanding build moves of the multi move game into single card moves.
+ */
+public class SupermoveTest {
+
+  /**
+   * Expands every legal build move of the game and checks that making the steps one at a time
+   * gives the same position as making the move at once.
+   *
+   * @return the number of moves that needed an empty cascade pile to park cards.
+   */
+  private int checkExpansions(MultiMoveSimpleFreecellModel model, MoveBuffer moves) {
+    int parked = 0;
+    MoveBuffer steps = new MoveBuffer(2);
+    for (int i = 0; i < moves.size(); i++) {
+      PileType source = moves.getSource(i);
+      int pile = moves.getPileNumber(i);
+      int card = moves.getCardIndex(i);
+      int destPile = moves.getDestPileNumber(i);
+      if (source != PileType.CASCADE || card == model.getNumCardsInCascadePile(pile) - 1) {
+        continue;
+      }
+      int numCards = model.getNumCardsInCascadePile(pile) - card;
+      int count;
+      try {
+        count = model.expandMove(source, pile, card, PileType.CASCADE, destPile, steps);
+      } catch (IllegalArgumentException e) {
+        // only a move into an empty pile may rely on that pile as free space.
+        assertEquals(0, model.getNumCardsInCascadePile(destPile));
+        continue;
+      }
+      assertEquals(count, steps.size());
+      if (count > 2 * numCards - 1) {
+        parked += 1;
+      }
+
+      MultiMoveSimpleFreecellModel atOnce = model.fork();
+      atOnce.move(source, pile, card, PileType.CASCADE, destPile);
+      MultiMoveSimpleFreecellModel oneByOne = model.fork();
+      for (int s = 0; s < count; s++) {
+        assertEquals(MoveResult.SUCCESS, oneByOne.tryMove(steps.getSource(s),
+                steps.getPileNumber(s), steps.getCardIndex(s), steps.getDestination(s),
+                steps.getDestPileNumber(s)));
+      }
+      assertEquals(atOnce.getPosition(), oneByOne.getPosition());
+    }
+    return parked;
+  }
+
+  @Test
+  public void stepsMatchBuildMoves() {
+    int parked = 0;
+    MoveBuffer moves = new MoveBuffer();
+    for (long seed = 0; seed < 40; seed++) {
+      Random random = new Random(seed);
+      MultiMoveSimpleFreecellModel model = new MultiMoveSimpleFreecellModel();
+      List<Card> deck = model.getDeck();
+      Collections.shuffle(deck, random);
+      model.startGame(deck, 8, 2, false);
+      for (int i = 0; i < 150; i++) {
+        int count = model.getLegalMoves(moves);
+        if (count == 0) {
+          break;
+        }
+        parked += checkExpansions(model, moves);
+        int next = random.nextInt(count);
+        model.move(moves.getSource(next), moves.getPileNumber(next), moves.getCardIndex(next),
+                moves.getDestination(next), moves.getDestPileNumber(next));
+      }
+    }
+    assertEquals(true, parked > 0);
+  }
+
+  @Test
+  public void singleCardMoveIsOneStep() {
+    MultiMoveSimpleFreecellModel model = new MultiMoveSimpleFreecellModel();
+    model.startGame(model.getDeck(), 4, 1, false);
+    MoveBuffer steps = new MoveBuffer();
+    assertEquals(1, model.expandMove(PileType.CASCADE, 0, 12, PileType.OPEN, 0, steps));
+    assertEquals(PileType.OPEN, steps.getDestination(0));
+    assertEquals(12, steps.getCardIndex(0));
+    assertEquals(13, model.getNumCardsInCascadePile(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void illegalMoveIsNotExpanded() {
+    MultiMoveSimpleFreecellModel model = new MultiMoveSimpleFreecellModel();
+    model.startGame(model.getDeck(), 4, 1, false);
+    model.expandMove(PileType.CASCADE, 0, 11, PileType.CASCADE, 1, new MoveBuffer());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void expandBeforeStart() {
+    new MultiMoveSimpleFreecellModel().expandMove(PileType.CASCADE, 0, 0, PileType.OPEN, 0,
+            new MoveBuffer());
+  }
+}
@@ -0,0 +1,175 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cs3500.freecell.solver.TranspositionTable;
+import cs3500.freecell.solver.TranspositionTable.ReplacementPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * To test the lock-free table of positions reached by a search.
+ */
+public class TranspositionTableTest {
+
+  /**
+   * Makes a table of 8 entries, where every key shares the same 8 slots.
+   */
+  private TranspositionTable tiny(ReplacementPolicy policy) {
+    return new TranspositionTable(TranspositionTable.MIN_MEMORY_BUDGET, policy);
+  }
+
+  @Test
+  public void testCapacity() {
+    assertEquals(8, this.tiny(ReplacementPolicy.ALWAYS_REPLACE).getCapacity());
+    assertEquals(1024, new TranspositionTable(16 * 1024, ReplacementPolicy.ALWAYS_REPLACE)
+            .getCapacity());
+    // the capacity is rounded down to a power of two.
+    assertEquals(1024, new TranspositionTable(16 * 1500, ReplacementPolicy.ALWAYS_REPLACE)
+            .getCapacity());
+  }
+
+  @Test
+  public void testOfferAndProbe() {
+    TranspositionTable table = new TranspositionTable(1 << 16, ReplacementPolicy.DEPTH_PREFERRED);
+    assertEquals(TranspositionTable.NOT_FOUND, table.probe(42));
+    assertTrue(table.offer(42, 7));
+    assertEquals(7, table.probe(42));
+    assertTrue(table.offer(0, 0));
+    assertEquals(0, table.probe(0));
+    assertTrue(table.offer(-1L, 3));
+    assertEquals(3, table.probe(-1L));
+    assertEquals(7, table.probe(42));
+  }
+
+  @Test
+  public void testOfferKeepsLowestDepth() {
+    TranspositionTable table = new TranspositionTable(1 << 16, ReplacementPolicy.ALWAYS_REPLACE);
+    assertTrue(table.offer(42, 7));
+    assertFalse(table.offer(42, 7));
+    assertFalse(table.offer(42, 9));
+    assertEquals(7, table.probe(42));
+    assertTrue(table.offer(42, 4));
+    assertEquals(4, table.probe(42));
+  }
+
+  @Test
+  public void testCounters() {
+    TranspositionTable table = new TranspositionTable(1 << 16, ReplacementPolicy.ALWAYS_REPLACE);
+    table.probe(1);
+    table.offer(1, 2);
+    table.offer(1, 2);
+    table.probe(1);
+    table.probe(2);
+    assertEquals(2, table.getHits());
+    assertEquals(3, table.getMisses());
+    assertEquals(0, table.getCollisions());
+
+    table.clear();
+    assertEquals(0, table.getHits());
+    assertEquals(0, table.getMisses());
+    assertEquals(TranspositionTable.NOT_FOUND, table.probe(1));
+  }
+
+  @Test
+  public void testCollisions() {
+    TranspositionTable table = this.tiny(ReplacementPolicy.ALWAYS_REPLACE);
+    for (long key = 1; key <= 8; key++) {
+      assertTrue(table.offer(key, 1));
+    }
+    // every slot is full, so looking for a missing key passes all of them.
+    assertEquals(TranspositionTable.NOT_FOUND, table.probe(100));
+    assertTrue(table.getCollisions() >= 8);
+    for (long key = 1; key <= 8; key++) {
+      assertEquals(1, table.probe(key));
+    }
+  }
+
+  @Test
+  public void testDepthPreferred() {
+    TranspositionTable table = this.tiny(ReplacementPolicy.DEPTH_PREFERRED);
+    for (int key = 1; key <= 8; key++) {
+      table.offer(key, 10 + key);
+    }
+    // deeper than every entry, so it is not kept.
+    assertTrue(table.offer(100, 30));
+    assertEquals(TranspositionTable.NOT_FOUND, table.probe(100));
+    // shallower, so it replaces the deepest entry.
+    assertTrue(table.offer(200, 5));
+    assertEquals(5, table.probe(200));
+    assertEquals(TranspositionTable.NOT_FOUND, table.probe(8));
+    for (int key = 1; key <= 7; key++) {
+      assertEquals(10 + key, table.probe(key));
+    }
+  }
+
+  @Test
+  public void testAlwaysReplace() {
+    TranspositionTable table = this.tiny(ReplacementPolicy.ALWAYS_REPLACE);
+    for (int key = 1; key <= 8; key++) {
+      table.offer(key, 1);
+    }
+    assertTrue(table.offer(100, 30));
+    assertEquals(30, table.probe(100));
+    int lost = 0;
+    for (int key = 1; key <= 8; key++) {
+      if (table.probe(key) == TranspositionTable.NOT_FOUND) {
+        lost += 1;
+      }
+    }
+    assertEquals(1, lost);
+  }
+
+  @Test
+  public void testConcurrentOffers() throws InterruptedException {
+    TranspositionTable table = new TranspositionTable(1 << 24, ReplacementPolicy.DEPTH_PREFERRED);
+    AtomicInteger firsts = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      int thread = t;
+      threads.add(new Thread(() -> {
+        for (long key = 0; key < 10_000; key++) {
+          // every thread offers the shared keys, and keys of its own.
+          if (table.offer(key * 0x9E3779B97F4A7C15L, 3)) {
+            firsts.incrementAndGet();
+          }
+          table.offer((thread + 1) * 1_000_000L + key, 2);
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    // a key offered by two threads at the same moment may be new to both of them.
+    assertTrue(firsts.get() >= 10_000);
+    for (long key = 0; key < 10_000; key++) {
+      assertEquals(3, table.probe(key * 0x9E3779B97F4A7C15L));
+      for (int t = 0; t < 4; t++) {
+        assertEquals(2, table.probe((t + 1) * 1_000_000L + key));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBudgetTooSmall() {
+    new TranspositionTable(TranspositionTable.MIN_MEMORY_BUDGET - 1,
+            ReplacementPolicy.ALWAYS_REPLACE);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullPolicy() {
+    new TranspositionTable(1024, null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeDepth() {
+    this.tiny(ReplacementPolicy.ALWAYS_REPLACE).offer(1, -1);
+  }
+}